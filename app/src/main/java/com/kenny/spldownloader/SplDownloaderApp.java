@@ -0,0 +1,45 @@
+// SplDownloaderApp.java
+package com.kenny.spldownloader;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.manager.SessionSaver;
+import com.kenny.spldownloader.manager.TuningManager;
+import com.kenny.spldownloader.network.ConnectionWarmer;
+import com.kenny.spldownloader.platform.AndroidLogSink;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.service.ShareLinkResolver;
+import com.kenny.spldownloader.trace.Tracer;
+import java.io.File;
+
+public class SplDownloaderApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+
+        // core 模块的日志输出到 logcat，发布包不构造调试日志
+        Log.setSink(new AndroidLogSink());
+        Log.setMinLevel(debuggable ? Log.DEBUG : Log.INFO);
+
+        // 调试包记录每首歌的追踪区间，可从菜单导出
+        Tracer.setEnabled(debuggable);
+
+        // 分享短链的解析结果，第一次用到时才读取
+        ShareLinkResolver.getInstance().setCacheFile(new File(getFilesDir(), "share-links.bin"));
+
+        // 性能档位要在创建线程池和发出第一个请求之前生效
+        TuningManager.getInstance(this).apply();
+
+        // 尽早在后台读取上次的会话快照，界面创建时通常已经读完
+        SessionSaver.getInstance(this);
+
+        // 在后台预解析域名并预建连接，减少首次解析或搜索的等待
+        if (AppConfig.ENABLE_CONNECTION_WARMUP) {
+            ConnectionWarmer.getInstance().startAsync();
+        }
+    }
+}
@@ -25,7 +25,9 @@ public class SongAdapter extends ListAdapter<SongInfo, RecyclerView.ViewHolder>
 
     private final Context context;
     private OnItemClickListener listener;
+    private OnItemLongClickListener longClickListener;
     private OnLoadMoreListener loadMoreListener;
+    private DownloadedChecker downloadedChecker;
 
     // 加载更多相关状态
     private boolean isLoading = false;
@@ -78,13 +80,21 @@ public class SongAdapter extends ListAdapter<SongInfo, RecyclerView.ViewHolder>
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         if (holder instanceof ViewHolder) {
             SongInfo song = getItem(position);
-            ((ViewHolder) holder).bind(song);
+            boolean downloaded = downloadedChecker != null && downloadedChecker.isDownloaded(song);
+            ((ViewHolder) holder).bind(song, downloaded);
 
             holder.itemView.setOnClickListener(v -> {
                 if (listener != null) {
                     listener.onItemClick(song, position);
                 }
             });
+            holder.itemView.setOnLongClickListener(v -> {
+                if (longClickListener != null) {
+                    longClickListener.onItemLongClick(song, position);
+                    return true;
+                }
+                return false;
+            });
         } else if (holder instanceof LoadMoreViewHolder) {
             ((LoadMoreViewHolder) holder).bind(isLoading, loadFailed);
 
@@ -106,6 +116,16 @@ public class SongAdapter extends ListAdapter<SongInfo, RecyclerView.ViewHolder>
         submitList(songList != null ? new ArrayList<>(songList) : null);
     }
 
+    /**
+     * 本地歌词库有变化时刷新"已下载"标记。
+     */
+    public void refreshDownloadedMarks() {
+        int songCount = super.getItemCount();
+        if (songCount > 0) {
+            notifyItemRangeChanged(0, songCount);
+        }
+    }
+
     // 加载更多相关方法
     public void setLoading(boolean loading) {
         if (isLoading != loading) {
@@ -148,13 +168,13 @@ public class SongAdapter extends ListAdapter<SongInfo, RecyclerView.ViewHolder>
             chipStatus = itemView.findViewById(R.id.chip_status);
         }
 
-        public void bind(SongInfo song) {
+        public void bind(SongInfo song, boolean downloaded) {
             tvSongName.setText(song.getSongName() != null ? song.getSongName() : "未知歌曲");
             tvSinger.setText(song.getSinger() != null ? song.getSinger() : "未知歌手");
-            updateStatus(song.getDownloadStatus());
+            updateStatus(song.getDownloadStatus(), downloaded);
         }
 
-        public void updateStatus(SongInfo.DownloadStatus status) {
+        public void updateStatus(SongInfo.DownloadStatus status, boolean downloaded) {
             if (status != null) {
                 switch (status) {
                     case SUCCESS:
@@ -169,6 +189,12 @@ public class SongAdapter extends ListAdapter<SongInfo, RecyclerView.ViewHolder>
                         break;
                     case NONE:
                     default:
+                        if (downloaded) {
+                            chipStatus.setText("已下载");
+                            chipStatus.setChipBackgroundColorResource(R.color.primary);
+                            chipStatus.setChipIconResource(R.drawable.ic_check);
+                            break;
+                        }
                         chipStatus.setText("待下载");
                         chipStatus.setChipBackgroundColorResource(R.color.secondary);
                         chipStatus.setChipIconResource(R.drawable.ic_pending);
@@ -208,15 +234,31 @@ public class SongAdapter extends ListAdapter<SongInfo, RecyclerView.ViewHolder>
         void onItemClick(SongInfo song, int position);
     }
 
+    public interface OnItemLongClickListener {
+        void onItemLongClick(SongInfo song, int position);
+    }
+
     public interface OnLoadMoreListener {
         void onLoadMore();
     }
 
+    public interface DownloadedChecker {
+        boolean isDownloaded(SongInfo song);
+    }
+
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
 
+    public void setOnItemLongClickListener(OnItemLongClickListener listener) {
+        this.longClickListener = listener;
+    }
+
     public void setOnLoadMoreListener(OnLoadMoreListener listener) {
         this.loadMoreListener = listener;
     }
+
+    public void setDownloadedChecker(DownloadedChecker checker) {
+        this.downloadedChecker = checker;
+    }
 }
\ No newline at end of file
@@ -1,124 +1,532 @@
 // FileManager.java
 package com.kenny.spldownloader.manager;
 
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
 import android.net.Uri;
 import android.os.Build;
+import android.os.Bundle;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
 import android.provider.MediaStore;
-import android.util.Log;
+import android.system.Os;
+import android.system.OsConstants;
 import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.metrics.Stage;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.util.FileNames;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.OutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * 歌词文件的保存。所有写入都先落到对播放器不可见的位置（IS_PENDING 条目或隐藏的临时文件），
+ * 一组文件写完后统一 fsync，再原子地发布，进程中途被杀也不会留下截断的歌词。
+ */
 public class FileManager {
     private static final String TAG = "FileManager";
+    private static final String TEMP_PREFIX = ".";
+    private static final String TEMP_SUFFIX = ".tmp";
 
     public static boolean saveLyricFile(Context context, String fileName,
                                         String content, LyricType lyricType) {
+        return saveLyricFiles(context, Collections.singletonList(
+                new LyricFile(fileName, content, lyricType)))[0];
+    }
+
+    /**
+     * 批量保存歌词文件，返回每个文件是否保存成功。
+     * Android 10 及以上先用一次 applyBatch 插入所有待定（IS_PENDING）条目，逐个写入内容后
+     * 再用一次 applyBatch 清除待定标记，失败的条目一并删除，避免每首歌两次 binder 往返。
+     * 已经存在的文件不另插条目（MediaStore 会把新条目改名为 "X (1).lrc"），而是把原条目重新标记为待定后覆盖。
+     */
+    public static boolean[] saveLyricFiles(Context context, List<LyricFile> files) {
+        if (files.isEmpty()) {
+            return new boolean[0];
+        }
+        boolean[] results = new boolean[files.size()];
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-            return saveWithMediaStore(context, fileName, content, lyricType);
-        } else {
-            return saveWithLegacyMethod(context, fileName, content, lyricType);
+            // 分块提交，避免单个 binder 事务过大
+            for (int start = 0; start < files.size(); start += AppConfig.MEDIASTORE_BATCH_SIZE) {
+                int end = Math.min(files.size(), start + AppConfig.MEDIASTORE_BATCH_SIZE);
+                boolean[] chunk = saveBatchWithMediaStore(context, files.subList(start, end));
+                System.arraycopy(chunk, 0, results, start, chunk.length);
+            }
+            return results;
+        }
+
+        for (int start = 0; start < files.size(); start += AppConfig.FSYNC_GROUP_SIZE) {
+            int end = Math.min(files.size(), start + AppConfig.FSYNC_GROUP_SIZE);
+            boolean[] group = saveGroupWithLegacyMethod(files.subList(start, end));
+            System.arraycopy(group, 0, results, start, group.length);
+        }
+        return results;
+    }
+
+    @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.Q)
+    private static boolean[] saveBatchWithMediaStore(Context context, List<LyricFile> files) {
+        ContentResolver resolver = context.getContentResolver();
+        Uri collection = MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY);
+        boolean[] results = new boolean[files.size()];
+        Uri[] existing = findExisting(resolver, collection, files);
+
+        // 第一次事务：插入新文件的待定条目，已有的条目改回待定
+        ArrayList<ContentProviderOperation> inserts = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            if (existing[i] != null) {
+                inserts.add(ContentProviderOperation.newUpdate(existing[i])
+                        .withValue(MediaStore.MediaColumns.IS_PENDING, 1).build());
+                continue;
+            }
+            ContentValues values = createContentValues(files.get(i).fileName(), files.get(i).lyricType());
+            values.put(MediaStore.MediaColumns.IS_PENDING, 1);
+            inserts.add(ContentProviderOperation.newInsert(collection).withValues(values).build());
+        }
+
+        Uri[] targets = new Uri[files.size()];
+        long startTime = System.nanoTime();
+        try {
+            ContentProviderResult[] inserted = resolver.applyBatch(MediaStore.AUTHORITY, inserts);
+            Metrics.recordSince(Stage.MEDIASTORE_INSERT, startTime);
+            for (int i = 0; i < inserted.length; i++) {
+                targets[i] = existing[i] != null ? existing[i] : inserted[i].uri;
+            }
+        } catch (Exception e) {
+            Metrics.recordError(Stage.MEDIASTORE_INSERT);
+            Log.w(TAG, "MediaStore批量插入失败，改为逐个保存: " + e.getMessage());
+            for (int i = 0; i < files.size(); i++) {
+                LyricFile file = files.get(i);
+                results[i] = saveWithMediaStore(context, existing[i], file.fileName(), file.content(), file.lyricType());
+            }
+            return results;
+        }
+
+        // 按组写入内容，每组写完后统一 fsync
+        boolean[] opened = new boolean[files.size()];
+        for (int start = 0; start < targets.length; start += AppConfig.FSYNC_GROUP_SIZE) {
+            int end = Math.min(targets.length, start + AppConfig.FSYNC_GROUP_SIZE);
+            List<DurableWrite> group = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                Uri uri = targets[i];
+                if (uri != null) {
+                    group.add(openPending(resolver, uri, i));
+                }
+            }
+            writeAndSync(group, files);
+            for (DurableWrite write : group) {
+                results[write.index] = write.ok;
+                opened[write.index] = write.out != null;
+            }
+        }
+
+        // 第二次事务：成功的条目清除待定标记，失败的删除；已有文件还没打开（内容未动）时只恢复发布
+        ArrayList<ContentProviderOperation> updates = new ArrayList<>(targets.length);
+        for (int i = 0; i < targets.length; i++) {
+            Uri uri = targets[i];
+            if (uri == null) {
+                continue;
+            }
+            if (results[i] || (existing[i] != null && !opened[i])) {
+                updates.add(ContentProviderOperation.newUpdate(uri)
+                        .withValue(MediaStore.MediaColumns.IS_PENDING, 0).build());
+            } else {
+                updates.add(ContentProviderOperation.newDelete(uri).build());
+            }
+        }
+
+        try {
+            resolver.applyBatch(MediaStore.AUTHORITY, updates);
+        } catch (Exception e) {
+            Log.e(TAG, "MediaStore批量发布失败: " + e.getMessage(), e);
+            return new boolean[files.size()];
         }
+
+        Log.d(TAG, () -> "MediaStore批量保存完成: " + files.size() + " 个文件");
+        return results;
     }
 
+    // 单个文件的保存，只在批量插入被拒绝时使用，同样先写待定条目再发布；existing 不为 null 时覆盖该条目
     @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.Q)
-    private static boolean saveWithMediaStore(Context context, String fileName,
+    private static boolean saveWithMediaStore(Context context, Uri existing, String fileName,
                                               String content, LyricType lyricType) {
+        ContentResolver resolver = context.getContentResolver();
+        Uri uri = null;
         try {
-            ContentResolver resolver = context.getContentResolver();
-            String safeFileName = ensureLrcExtension(makeSafeFileName(fileName));
-            String folder = getFolderByLyricType(lyricType);
+            ContentValues contentValues = createContentValues(fileName, lyricType);
+            contentValues.put(MediaStore.MediaColumns.IS_PENDING, 1);
+            String safeFileName = contentValues.getAsString(MediaStore.MediaColumns.DISPLAY_NAME);
 
-            ContentValues contentValues = new ContentValues();
-            contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME, safeFileName);
-            contentValues.put(MediaStore.MediaColumns.MIME_TYPE, "application/octet-stream");
-            contentValues.put(MediaStore.MediaColumns.RELATIVE_PATH,
-                    Environment.DIRECTORY_DOWNLOADS + "/" + folder);
+            long startTime = System.nanoTime();
+            if (existing != null) {
+                ContentValues pending = new ContentValues();
+                pending.put(MediaStore.MediaColumns.IS_PENDING, 1);
+                uri = resolver.update(existing, pending, null, null) > 0 ? existing : null;
+            } else {
+                uri = resolver.insert(
+                        MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
+                        contentValues);
+            }
+            Metrics.recordSince(Stage.MEDIASTORE_INSERT, startTime);
 
-            Uri uri = resolver.insert(
-                    MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
-                    contentValues);
+            if (uri == null) {
+                Metrics.recordError(Stage.MEDIASTORE_INSERT);
+                Log.e(TAG, "MediaStore创建文件失败");
+                return false;
+            }
 
-            if (uri != null) {
-                try (OutputStream outputStream = resolver.openOutputStream(uri)) {
-                    if (outputStream != null) {
-                        outputStream.write(content.getBytes(StandardCharsets.UTF_8));
-                        Log.d(TAG, "MediaStore文件保存成功: " + safeFileName);
-                        return true;
-                    }
+            DurableWrite write = openPending(resolver, uri, 0);
+            writeAndSync(Collections.singletonList(write), Collections.singletonList(
+                    new LyricFile(fileName, content, lyricType)));
+            if (!write.ok) {
+                if (existing != null && write.out == null) {
+                    // 原文件还没被截断，恢复发布即可
+                    ContentValues restore = new ContentValues();
+                    restore.put(MediaStore.MediaColumns.IS_PENDING, 0);
+                    resolver.update(uri, restore, null, null);
+                } else {
+                    resolver.delete(uri, null, null);
                 }
+                return false;
             }
 
-            Log.e(TAG, "MediaStore创建文件失败");
-            return false;
+            ContentValues publish = new ContentValues();
+            publish.put(MediaStore.MediaColumns.IS_PENDING, 0);
+            resolver.update(uri, publish, null, null);
+            Log.d(TAG, () -> "MediaStore文件保存成功: " + safeFileName);
+            return true;
 
         } catch (Exception e) {
+            Metrics.recordError(Stage.FILE_WRITE);
             Log.e(TAG, "MediaStore保存文件失败: " + e.getMessage(), e);
+            if (uri != null) {
+                try {
+                    resolver.delete(uri, null, null);
+                } catch (Exception ignored) {
+                }
+            }
             return false;
         }
     }
 
-    private static boolean saveWithLegacyMethod(Context context, String fileName,
-                                                String content, LyricType lyricType) {
-        try {
-            String folder = getFolderByLyricType(lyricType);
-            File downloadDir = Environment.getExternalStoragePublicDirectory(
-                    Environment.DIRECTORY_DOWNLOADS);
-            File targetDir = new File(downloadDir, folder);
+    /**
+     * 传统存储：每个文件先写到同目录下的隐藏临时文件，整组 fsync 后再逐个 rename 成正式文件名，
+     * 最后每个目录只同步一次，让 rename 本身也持久化。
+     */
+    private static boolean[] saveGroupWithLegacyMethod(List<LyricFile> files) {
+        File downloadDir = Environment.getExternalStoragePublicDirectory(
+                Environment.DIRECTORY_DOWNLOADS);
+        List<DurableWrite> group = new ArrayList<>(files.size());
+        Set<File> directories = new LinkedHashSet<>();
 
+        for (int i = 0; i < files.size(); i++) {
+            LyricFile file = files.get(i);
+            File targetDir = new File(downloadDir, getFolderByLyricType(file.lyricType()));
             if (!targetDir.exists() && !targetDir.mkdirs()) {
                 Log.e(TAG, "创建目录失败: " + targetDir.getAbsolutePath());
-                return false;
+                group.add(DurableWrite.failed(i));
+                continue;
             }
 
-            String safeFileName = ensureLrcExtension(makeSafeFileName(fileName));
-            File file = new File(targetDir, safeFileName);
+            String safeFileName = FileNames.ensureLrcExtension(FileNames.makeSafeFileName(file.fileName()));
+            File target = new File(targetDir, safeFileName);
+            File temp = new File(targetDir, TEMP_PREFIX + safeFileName + TEMP_SUFFIX);
+            try {
+                group.add(new DurableWrite(i, new FileOutputStream(temp), temp, target));
+            } catch (IOException e) {
+                Log.e(TAG, "创建临时文件失败: " + temp.getAbsolutePath(), e);
+                group.add(DurableWrite.failed(i));
+            }
+        }
 
-            try (FileWriter writer = new FileWriter(file)) {
-                writer.write(content);
-                Log.d(TAG, "传统方式文件保存成功: " + file.getAbsolutePath());
-                return true;
+        writeAndSync(group, files);
+
+        boolean[] results = new boolean[files.size()];
+        for (DurableWrite write : group) {
+            if (write.temp == null) {
+                continue;
+            }
+            if (write.ok && write.temp.renameTo(write.target)) {
+                results[write.index] = true;
+                directories.add(write.target.getParentFile());
+            } else {
+                Log.e(TAG, "传统方式保存失败: " + write.target.getAbsolutePath());
+                deleteQuietly(write.temp);
             }
+        }
+
+        for (File directory : directories) {
+            syncDirectory(directory);
+        }
+        Log.d(TAG, () -> "传统方式保存完成: " + files.size() + " 个文件");
+        return results;
+    }
+
+    @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.Q)
+    private static DurableWrite openPending(ContentResolver resolver, Uri uri, int index) {
+        try {
+            // 覆盖已有文件时 "w" 不一定截断，用 "wt"
+            ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "wt");
+            if (pfd == null) {
+                return DurableWrite.failed(index);
+            }
+            // 关闭输出流时一并关闭 ParcelFileDescriptor
+            return new DurableWrite(index, new ParcelFileDescriptor.AutoCloseOutputStream(pfd), null, null);
         } catch (Exception e) {
-            Log.e(TAG, "传统方式保存失败: " + e.getMessage(), e);
-            return false;
+            Log.e(TAG, "MediaStore打开文件失败: " + e.getMessage(), e);
+            return DurableWrite.failed(index);
         }
     }
 
-    private static String getFolderByLyricType(LyricType lyricType) {
-        return lyricType == LyricType.NORMAL ?
-                AppConfig.FOLDER_NORMAL_LRC : AppConfig.FOLDER_WORD_BY_WORD;
+    /**
+     * 先把整组内容写完，再依次 fsync 并关闭。第一次 fsync 提交日志时通常会把同组其他文件的
+     * 数据一起刷盘，后面的 fsync 几乎没有额外开销，比每写一个文件就 fsync 一次快得多。
+     */
+    private static void writeAndSync(List<DurableWrite> group, List<LyricFile> files) {
+        for (DurableWrite write : group) {
+            if (write.out == null) {
+                continue;
+            }
+            long startTime = System.nanoTime();
+            try {
+                write.out.write(files.get(write.index).content().getBytes(StandardCharsets.UTF_8));
+                write.ok = true;
+                Metrics.recordSince(Stage.FILE_WRITE, startTime);
+            } catch (IOException e) {
+                Metrics.recordError(Stage.FILE_WRITE);
+                Log.e(TAG, "写入文件失败: " + e.getMessage(), e);
+            }
+        }
+
+        for (DurableWrite write : group) {
+            if (write.out == null) {
+                continue;
+            }
+            try {
+                if (write.ok) {
+                    write.out.getFD().sync();
+                }
+            } catch (IOException e) {
+                write.ok = false;
+                Log.e(TAG, "同步文件失败: " + e.getMessage(), e);
+            } finally {
+                closeQuietly(write);
+            }
+        }
+    }
+
+    private static void syncDirectory(File directory) {
+        try {
+            FileDescriptor fd = Os.open(directory.getAbsolutePath(), OsConstants.O_RDONLY, 0);
+            try {
+                Os.fsync(fd);
+            } finally {
+                Os.close(fd);
+            }
+        } catch (Exception e) {
+            // 部分文件系统不支持同步目录，文件内容已经持久化，这里只记录一下
+            Log.w(TAG, "同步目录失败: " + directory.getAbsolutePath() + ", " + e.getMessage());
+        }
+    }
+
+    /**
+     * 清理上次进程意外退出时遗留的临时文件和待定条目，应在后台线程调用。
+     */
+    public static void cleanupIncompleteFiles(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            cleanupPendingEntries(context);
+            return;
+        }
+
+        File downloadDir = Environment.getExternalStoragePublicDirectory(
+                Environment.DIRECTORY_DOWNLOADS);
+        for (LyricType lyricType : LyricType.values()) {
+            File[] stale = new File(downloadDir, getFolderByLyricType(lyricType)).listFiles(
+                    (dir, name) -> name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX));
+            if (stale == null) {
+                continue;
+            }
+            for (File file : stale) {
+                deleteQuietly(file);
+            }
+            if (stale.length > 0) {
+                Log.i(TAG, "清理未完成的临时文件: " + stale.length + " 个");
+            }
+        }
+    }
+
+    @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.Q)
+    private static void cleanupPendingEntries(Context context) {
+        ContentResolver resolver = context.getContentResolver();
+        Uri collection = MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY);
+        String selection = MediaStore.MediaColumns.IS_PENDING + "=1 AND (" +
+                MediaStore.MediaColumns.RELATIVE_PATH + " LIKE ? OR " +
+                MediaStore.MediaColumns.RELATIVE_PATH + " LIKE ?)";
+        String[] selectionArgs = {
+                Environment.DIRECTORY_DOWNLOADS + "/" + AppConfig.FOLDER_NORMAL_LRC + "%",
+                Environment.DIRECTORY_DOWNLOADS + "/" + AppConfig.FOLDER_WORD_BY_WORD + "%"
+        };
+
+        List<Uri> stale = new ArrayList<>();
+        try (Cursor cursor = queryPending(resolver, collection, selection, selectionArgs)) {
+            if (cursor != null) {
+                int idColumn = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns._ID);
+                while (cursor.moveToNext()) {
+                    stale.add(Uri.withAppendedPath(collection, String.valueOf(cursor.getLong(idColumn))));
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "查询未完成条目失败: " + e.getMessage());
+            return;
+        }
+
+        ArrayList<ContentProviderOperation> deletes = new ArrayList<>(stale.size());
+        for (Uri uri : stale) {
+            deletes.add(ContentProviderOperation.newDelete(uri).build());
+        }
+        if (deletes.isEmpty()) {
+            return;
+        }
+        try {
+            resolver.applyBatch(MediaStore.AUTHORITY, deletes);
+            Log.i(TAG, "清理未完成的MediaStore条目: " + deletes.size() + " 个");
+        } catch (Exception e) {
+            Log.w(TAG, "清理未完成条目失败: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.Q)
+    private static Cursor queryPending(ContentResolver resolver, Uri collection,
+                                       String selection, String[] selectionArgs) {
+        String[] projection = {MediaStore.MediaColumns._ID};
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            Bundle args = new Bundle();
+            args.putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selection);
+            args.putStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS, selectionArgs);
+            args.putInt(MediaStore.QUERY_ARG_MATCH_PENDING, MediaStore.MATCH_INCLUDE);
+            return resolver.query(collection, projection, args, null);
+        }
+        return resolver.query(MediaStore.setIncludePending(collection), projection,
+                selection, selectionArgs, null);
+    }
+
+    /**
+     * 文件相对于下载目录的路径，如 "SPL/歌名 - 歌手.lrc"，用作内容索引的键。
+     */
+    public static String getRelativePath(LyricFile file) {
+        return getFolderByLyricType(file.lyricType()) + "/" +
+                FileNames.ensureLrcExtension(FileNames.makeSafeFileName(file.fileName()));
     }
 
-    private static String ensureLrcExtension(String fileName) {
-        if (fileName == null) return "unknown.lrc";
+    /**
+     * 检查一批文件当前是否还在磁盘上。Android 10 及以上只做一次 MediaStore 查询。
+     */
+    public static boolean[] filesExist(Context context, List<LyricFile> files) {
+        boolean[] results = new boolean[files.size()];
+        if (files.isEmpty()) {
+            return results;
+        }
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            File downloadDir = Environment.getExternalStoragePublicDirectory(
+                    Environment.DIRECTORY_DOWNLOADS);
+            for (int i = 0; i < files.size(); i++) {
+                results[i] = new File(downloadDir, getRelativePath(files.get(i))).exists();
+            }
+            return results;
+        }
+
+        Uri[] existing = findExisting(context.getContentResolver(),
+                MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY), files);
+        for (int i = 0; i < files.size(); i++) {
+            results[i] = existing[i] != null;
+        }
+        return results;
+    }
 
-        if (fileName.toLowerCase().endsWith(".lrc")) {
-            return fileName;
+    /**
+     * 用一次查询找出每个文件在 MediaStore 中已发布的条目，不存在或查询失败时为 null。
+     */
+    @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.Q)
+    private static Uri[] findExisting(ContentResolver resolver, Uri collection, List<LyricFile> files) {
+        Uri[] results = new Uri[files.size()];
+        StringBuilder selection = new StringBuilder(MediaStore.MediaColumns.DISPLAY_NAME + " IN (");
+        String[] selectionArgs = new String[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            selection.append(i == 0 ? "?" : ",?");
+            selectionArgs[i] = FileNames.ensureLrcExtension(FileNames.makeSafeFileName(files.get(i).fileName()));
         }
+        selection.append(')');
 
-        String nameWithoutExt = fileName;
-        int lastDotIndex = fileName.lastIndexOf('.');
-        if (lastDotIndex > 0) {
-            nameWithoutExt = fileName.substring(0, lastDotIndex);
+        Map<String, Uri> existing = new HashMap<>();
+        String[] projection = {MediaStore.MediaColumns._ID, MediaStore.MediaColumns.RELATIVE_PATH,
+                MediaStore.MediaColumns.DISPLAY_NAME};
+        String downloadsPrefix = Environment.DIRECTORY_DOWNLOADS + "/";
+        try (Cursor cursor = resolver.query(collection, projection, selection.toString(), selectionArgs, null)) {
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    String relativePath = cursor.getString(1);
+                    if (relativePath == null || !relativePath.startsWith(downloadsPrefix)) {
+                        continue;
+                    }
+                    // RELATIVE_PATH 形如 "Download/SPL/"
+                    existing.put(relativePath.substring(downloadsPrefix.length()) + cursor.getString(2),
+                            Uri.withAppendedPath(collection, String.valueOf(cursor.getLong(0))));
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "查询已有文件失败: " + e.getMessage());
+            return results;
         }
 
-        return nameWithoutExt + ".lrc";
+        for (int i = 0; i < files.size(); i++) {
+            results[i] = existing.get(getRelativePath(files.get(i)));
+        }
+        return results;
     }
 
-    private static String makeSafeFileName(String fileName) {
-        if (fileName == null) return "unknown.lrc";
+    private static ContentValues createContentValues(String fileName, LyricType lyricType) {
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME,
+                FileNames.ensureLrcExtension(FileNames.makeSafeFileName(fileName)));
+        contentValues.put(MediaStore.MediaColumns.MIME_TYPE, "application/octet-stream");
+        contentValues.put(MediaStore.MediaColumns.RELATIVE_PATH,
+                Environment.DIRECTORY_DOWNLOADS + "/" + getFolderByLyricType(lyricType));
+        return contentValues;
+    }
 
-        return fileName.replaceAll("[<>:\"/\\\\|?*]", "_")
-                .replaceAll("_{2,}", "_")
-                .replaceAll("\\s+", " ")
-                .trim();
+    private static void closeQuietly(DurableWrite write) {
+        try {
+            write.out.close();
+        } catch (IOException e) {
+            write.ok = false;
+            Log.w(TAG, "关闭文件失败: " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "删除文件失败: " + file.getAbsolutePath());
+        }
+    }
+
+    private static String getFolderByLyricType(LyricType lyricType) {
+        return lyricType == LyricType.NORMAL ?
+                AppConfig.FOLDER_NORMAL_LRC : AppConfig.FOLDER_WORD_BY_WORD;
     }
 
     public static String getLyricDirectoryPath(LyricType lyricType) {
@@ -137,4 +545,27 @@ public class FileManager {
     public enum LyricType {
         NORMAL, WORD_BY_WORD
     }
-}
\ No newline at end of file
+
+    public record LyricFile(String fileName, String content, LyricType lyricType) {
+    }
+
+    // 一组写入中的单个文件：MediaStore 条目或临时文件，写完并 fsync 后才算成功
+    private static final class DurableWrite {
+        final int index;
+        final FileOutputStream out;
+        final File temp;
+        final File target;
+        boolean ok;
+
+        DurableWrite(int index, FileOutputStream out, File temp, File target) {
+            this.index = index;
+            this.out = out;
+            this.temp = temp;
+            this.target = target;
+        }
+
+        static DurableWrite failed(int index) {
+            return new DurableWrite(index, null, null, null);
+        }
+    }
+}
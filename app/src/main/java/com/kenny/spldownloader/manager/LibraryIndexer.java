@@ -0,0 +1,246 @@
+// LibraryIndexer.java
+package com.kenny.spldownloader.manager;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.storage.LibraryIndex;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import com.kenny.spldownloader.util.FileNames;
+import java.io.File;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 维护 Download/LRC 和 Download/SPL 的本地索引，供列表标记"已下载"。
+ *
+ * 第一次整体扫描，之后只看变化：Android 11 及以上按 MediaStore 的 generation，
+ * Android 10 按修改时间，更早的版本按目录修改时间决定要不要重新列目录。
+ * MediaStore 版本变了或者文件数对不上（有文件被删）时退回整体扫描。
+ */
+public class LibraryIndexer {
+    private static final String TAG = "LibraryIndexer";
+    private static final String INDEX_FILE = "library-index.bin";
+    private static final String[] FOLDERS = {AppConfig.FOLDER_NORMAL_LRC, AppConfig.FOLDER_WORD_BY_WORD};
+
+    private static LibraryIndexer instance;
+
+    private final Context context;
+    private final ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile LibraryIndex index;
+    private volatile Runnable onChangedListener;
+
+    private LibraryIndexer(Context context) {
+        this.context = context.getApplicationContext();
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "library-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized LibraryIndexer getInstance(Context context) {
+        if (instance == null) {
+            instance = new LibraryIndexer(context);
+        }
+        return instance;
+    }
+
+    /**
+     * 只查内存里的索引，可以在绑定列表项时直接调用。索引还没加载完时返回 false。
+     */
+    public boolean isDownloaded(SongInfo song) {
+        LibraryIndex current = index;
+        if (current == null) {
+            return false;
+        }
+        return current.containsSongKey(LibraryIndex.songKey(FileNames.makeSafeFileName(song.getFileName())));
+    }
+
+    /**
+     * 索引有变化时在主线程回调。
+     */
+    public void setOnChangedListener(Runnable listener) {
+        this.onChangedListener = listener;
+    }
+
+    /**
+     * 在后台线程增量更新索引。
+     */
+    public void refresh() {
+        executor.execute(this::update);
+    }
+
+    private void update() {
+        boolean changed = false;
+        if (index == null) {
+            index = new LibraryIndex(new File(context.getFilesDir(), INDEX_FILE));
+            changed = index.size() > 0;
+        }
+
+        try (Span span = Tracer.beginTrace("library scan", null)) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                changed |= updateFromMediaStore();
+            } else {
+                changed |= updateFromDirectories();
+            }
+            span.detail(index.size() + " 个文件");
+        } catch (RuntimeException e) {
+            Log.w(TAG, "扫描歌词库失败: " + e.getMessage());
+        }
+
+        index.save();
+        Runnable listener = onChangedListener;
+        if (changed && listener != null) {
+            mainHandler.post(listener);
+        }
+    }
+
+    private boolean updateFromMediaStore() {
+        boolean useGeneration = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R;
+        String source = (useGeneration ? "generation:" : "mtime:") + MediaStore.getVersion(context);
+
+        boolean fullScan = !source.equals(index.getCursorSource());
+        if (fullScan) {
+            index.clear();
+        }
+
+        long cursor = index.getCursor();
+        Set<String> seen = fullScan ? new HashSet<>() : null;
+        boolean changed = queryMediaStore(useGeneration, fullScan ? -1 : cursor, seen) || fullScan;
+
+        // generation 只反映新增和修改，删除要靠数量对账发现
+        if (!fullScan && countMediaStore() != index.size()) {
+            Log.d(TAG, "文件数与索引不一致，重新整体扫描");
+            index.clear();
+            seen = new HashSet<>();
+            queryMediaStore(useGeneration, -1, seen);
+            changed = true;
+        }
+        if (seen != null) {
+            index.retainAll(seen);
+        }
+        return changed;
+    }
+
+    /**
+     * 查询两个歌词目录下 cursor 之后有变化的行，更新索引并推进游标。
+     * cursor 为负数时查询全部。
+     */
+    private boolean queryMediaStore(boolean useGeneration, long cursor, Set<String> seen) {
+        String cursorColumn = useGeneration ?
+                MediaStore.MediaColumns.GENERATION_MODIFIED : MediaStore.MediaColumns.DATE_MODIFIED;
+        String[] projection = {
+                MediaStore.MediaColumns.RELATIVE_PATH,
+                MediaStore.MediaColumns.DISPLAY_NAME,
+                MediaStore.MediaColumns.SIZE,
+                MediaStore.MediaColumns.DATE_MODIFIED,
+                cursorColumn
+        };
+
+        String selection = folderSelection();
+        String[] selectionArgs = folderSelectionArgs(cursor >= 0 ? 1 : 0);
+        if (cursor >= 0) {
+            // 修改时间只精确到秒，同一秒内的变化用 >= 再看一遍，重复写入索引是幂等的
+            selection += " AND " + cursorColumn + (useGeneration ? " > ?" : " >= ?");
+            selectionArgs[selectionArgs.length - 1] = String.valueOf(cursor);
+        }
+
+        String downloadsPrefix = Environment.DIRECTORY_DOWNLOADS + "/";
+        boolean changed = false;
+        long maxCursor = Math.max(cursor, 0);
+        try (Cursor rows = context.getContentResolver().query(filesUri(), projection, selection, selectionArgs, null)) {
+            if (rows == null) {
+                return false;
+            }
+            while (rows.moveToNext()) {
+                String relativePath = rows.getString(0);
+                String name = rows.getString(1);
+                if (relativePath == null || name == null || !relativePath.startsWith(downloadsPrefix)) {
+                    continue;
+                }
+                // RELATIVE_PATH 形如 "Download/SPL/"
+                String path = relativePath.substring(downloadsPrefix.length()) + name;
+                changed |= index.put(path, rows.getLong(2), rows.getLong(3) * 1000L);
+                maxCursor = Math.max(maxCursor, rows.getLong(4));
+                if (seen != null) {
+                    seen.add(path);
+                }
+            }
+        }
+
+        index.setCursor((useGeneration ? "generation:" : "mtime:") + MediaStore.getVersion(context), maxCursor);
+        return changed;
+    }
+
+    private int countMediaStore() {
+        String[] projection = {MediaStore.MediaColumns._ID};
+        try (Cursor rows = context.getContentResolver().query(
+                filesUri(), projection, folderSelection(), folderSelectionArgs(0), null)) {
+            return rows != null ? rows.getCount() : 0;
+        }
+    }
+
+    private static Uri filesUri() {
+        return MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY);
+    }
+
+    private static String folderSelection() {
+        return MediaStore.MediaColumns.RELATIVE_PATH + " IN (?, ?)";
+    }
+
+    private static String[] folderSelectionArgs(int extra) {
+        String[] args = new String[FOLDERS.length + extra];
+        for (int i = 0; i < FOLDERS.length; i++) {
+            args[i] = Environment.DIRECTORY_DOWNLOADS + "/" + FOLDERS[i] + "/";
+        }
+        return args;
+    }
+
+    private boolean updateFromDirectories() {
+        File downloadDir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
+        if (!"file".equals(index.getCursorSource())) {
+            index.clear();
+        }
+
+        // 新增、删除和改名都会更新目录的修改时间，目录没变就不用列文件
+        long latestDirTime = 0;
+        for (String folder : FOLDERS) {
+            latestDirTime = Math.max(latestDirTime, new File(downloadDir, folder).lastModified());
+        }
+        if (latestDirTime != 0 && latestDirTime <= index.getCursor()) {
+            return false;
+        }
+
+        boolean changed = false;
+        Set<String> seen = new HashSet<>();
+        for (String folder : FOLDERS) {
+            File[] files = new File(downloadDir, folder).listFiles(
+                    (dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".lrc"));
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                String path = folder + "/" + file.getName();
+                seen.add(path);
+                changed |= index.put(path, file.length(), file.lastModified());
+            }
+        }
+        changed |= index.retainAll(seen);
+        index.setCursor("file", latestDirTime);
+        return changed;
+    }
+}
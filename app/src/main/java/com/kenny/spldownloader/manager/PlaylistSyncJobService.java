@@ -0,0 +1,41 @@
+// PlaylistSyncJobService.java
+package com.kenny.spldownloader.manager;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import com.kenny.spldownloader.platform.Log;
+
+/**
+ * 关注歌单同步的 JobScheduler 入口，同步在单独的线程里进行。
+ */
+public class PlaylistSyncJobService extends JobService {
+    private static final String TAG = "PlaylistSyncJob";
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        PlaylistSyncManager manager = PlaylistSyncManager.getInstance(this);
+        new Thread(() -> {
+            try {
+                PlaylistSyncManager.SyncState state = manager.runSync();
+                if (state != null) {
+                    Log.i(TAG, "关注歌单同步完成: 下载 " + state.downloaded() + " 首, 失败 " + state.failed() + " 首");
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "关注歌单同步失败: " + e.getMessage(), e);
+            } finally {
+                // 无论成功与否都要结束任务，否则系统一直认为它在运行
+                jobFinished(params, false);
+                // 任务结束后再按这次的结果调整周期，运行中替换任务会把自己停掉
+                manager.scheduleIfNeeded();
+            }
+        }, "playlist-sync").start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        PlaylistSyncManager.getInstance(this).requestStop();
+        // 周期任务到下个周期会再运行，不需要额外重试
+        return false;
+    }
+}
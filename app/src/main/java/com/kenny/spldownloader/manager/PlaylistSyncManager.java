@@ -0,0 +1,401 @@
+// PlaylistSyncManager.java
+package com.kenny.spldownloader.manager;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.converter.ConversionPool;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.service.LyricService;
+import com.kenny.spldownloader.service.UrlParser;
+import com.kenny.spldownloader.storage.PlaylistSnapshot;
+import com.kenny.spldownloader.storage.PlaylistSnapshotStore;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 关注歌单的后台同步。所有关注的歌单共用一个 JobScheduler 周期任务，一次唤醒里先并行拉取全部歌单、
+ * 和各自的快照比较，再把所有歌单的增量放进同一条"下载 → 转换 → 保存"流水线。
+ * 连续没有变化时把周期翻倍，减少无线电和 CPU 的唤醒次数；一有变化就恢复基础周期。
+ */
+public class PlaylistSyncManager {
+    private static final String TAG = "PlaylistSyncManager";
+    private static final int JOB_ID = 2001;
+    private static final String PREFS_NAME = "playlist_sync";
+    private static final String KEY_FOLLOWED = "followed";
+    private static final String KEY_LAST_STATE = "last_state";
+    private static final String KEY_IDLE_RUNS = "idle_runs";
+    private static final String SNAPSHOT_DIR = "playlists";
+
+    private static PlaylistSyncManager instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final PlaylistSnapshotStore snapshotStore;
+    private final UrlParser urlParser = new UrlParser();
+    private final LyricService lyricService = new LyricService();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean stopRequested;
+
+    public record FollowedPlaylist(String playlistId, String url, FileManager.LyricType lyricType) {
+
+        /**
+         * 快照按歌词类型分开保存：换了类型后旧快照里的歌并没有下载过新类型的歌词。
+         */
+        String snapshotId() {
+            return playlistId + "-" + lyricType.name();
+        }
+    }
+
+    /**
+     * 一次同步的结果，保存在 SharedPreferences 里供界面显示。
+     */
+    public record SyncState(long finishedAt, long durationMs, int playlists, int failedPlaylists,
+                            int added, int changed, int removed, int downloaded, int failed) {
+
+        public boolean hasChanges() {
+            return added > 0 || changed > 0 || removed > 0;
+        }
+
+        JSONObject toJson() throws JSONException {
+            return new JSONObject()
+                    .put("finishedAt", finishedAt)
+                    .put("durationMs", durationMs)
+                    .put("playlists", playlists)
+                    .put("failedPlaylists", failedPlaylists)
+                    .put("added", added)
+                    .put("changed", changed)
+                    .put("removed", removed)
+                    .put("downloaded", downloaded)
+                    .put("failed", failed);
+        }
+
+        static SyncState fromJson(JSONObject json) {
+            return new SyncState(json.optLong("finishedAt"), json.optLong("durationMs"),
+                    json.optInt("playlists"), json.optInt("failedPlaylists"),
+                    json.optInt("added"), json.optInt("changed"), json.optInt("removed"),
+                    json.optInt("downloaded"), json.optInt("failed"));
+        }
+    }
+
+    private record PlaylistDelta(FollowedPlaylist playlist, PlaylistSnapshot previous, List<SongInfo> current,
+                                 PlaylistSnapshot.Diff diff) {
+    }
+
+    // 同一首歌按不同歌词类型下载是两个文件
+    private record DownloadKey(String mid, FileManager.LyricType lyricType) {
+    }
+
+    private PlaylistSyncManager(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.snapshotStore = new PlaylistSnapshotStore(new File(this.context.getFilesDir(), SNAPSHOT_DIR));
+    }
+
+    public static synchronized PlaylistSyncManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new PlaylistSyncManager(context);
+        }
+        return instance;
+    }
+
+    public synchronized List<FollowedPlaylist> getFollowed() {
+        List<FollowedPlaylist> followed = new ArrayList<>();
+        try {
+            JSONArray array = new JSONArray(prefs.getString(KEY_FOLLOWED, "[]"));
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.getJSONObject(i);
+                followed.add(new FollowedPlaylist(item.getString("id"), item.getString("url"),
+                        FileManager.LyricType.valueOf(item.getString("type"))));
+            }
+        } catch (JSONException | IllegalArgumentException e) {
+            Log.w(TAG, "读取关注歌单失败: " + e.getMessage());
+        }
+        return followed;
+    }
+
+    /**
+     * 关注一个歌单链接，已关注时更新歌词类型。不是歌单链接时返回 false。
+     */
+    public synchronized boolean follow(String url, FileManager.LyricType lyricType) {
+        String playlistId = UrlParser.playlistIdOf(url);
+        if (playlistId == null || playlistId.isEmpty()) {
+            return false;
+        }
+        List<FollowedPlaylist> followed = getFollowed();
+        for (FollowedPlaylist playlist : followed) {
+            if (playlist.playlistId().equals(playlistId) && playlist.lyricType() != lyricType) {
+                snapshotStore.delete(playlist.snapshotId());
+            }
+        }
+        followed.removeIf(playlist -> playlist.playlistId().equals(playlistId));
+        followed.add(new FollowedPlaylist(playlistId, url, lyricType));
+        saveFollowed(followed);
+
+        // 新关注的歌单应尽快同步，周期回到基础值
+        prefs.edit().putInt(KEY_IDLE_RUNS, 0).apply();
+        scheduleIfNeeded();
+        return true;
+    }
+
+    public synchronized void unfollow(String playlistId) {
+        List<FollowedPlaylist> followed = getFollowed();
+        List<FollowedPlaylist> removed = new ArrayList<>();
+        for (FollowedPlaylist playlist : followed) {
+            if (playlist.playlistId().equals(playlistId)) {
+                removed.add(playlist);
+            }
+        }
+        if (!removed.isEmpty()) {
+            followed.removeAll(removed);
+            saveFollowed(followed);
+            for (FollowedPlaylist playlist : removed) {
+                snapshotStore.delete(playlist.snapshotId());
+            }
+            scheduleIfNeeded();
+        }
+    }
+
+    public SyncState getLastState() {
+        String json = prefs.getString(KEY_LAST_STATE, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return SyncState.fromJson(new JSONObject(json));
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 当前的同步周期：基础周期按连续无变化的次数翻倍。
+     */
+    public long getIntervalMs() {
+        int idleRuns = Math.min(prefs.getInt(KEY_IDLE_RUNS, 0), AppConfig.PLAYLIST_SYNC_MAX_BACKOFF);
+        return AppConfig.PLAYLIST_SYNC_INTERVAL_MS << idleRuns;
+    }
+
+    /**
+     * 按当前周期排期；没有关注的歌单时取消任务。周期没变时保留已有任务，不打乱系统的批量唤醒。
+     * 同步进行中不重新排期，JobScheduler 替换同 ID 的任务会停止正在运行的那次，同步结束后再调用。
+     */
+    public void scheduleIfNeeded() {
+        if (running.get()) {
+            return;
+        }
+        JobScheduler scheduler = context.getSystemService(JobScheduler.class);
+        if (scheduler == null) {
+            return;
+        }
+        if (getFollowed().isEmpty()) {
+            scheduler.cancel(JOB_ID);
+            return;
+        }
+
+        long interval = getIntervalMs();
+        JobInfo pending = scheduler.getPendingJob(JOB_ID);
+        if (pending != null && pending.getIntervalMillis() == interval) {
+            return;
+        }
+
+        // 弹性窗口放宽到周期的四分之一，让系统把这次唤醒和其他应用的任务合并
+        JobInfo job = new JobInfo.Builder(JOB_ID, new ComponentName(context, PlaylistSyncJobService.class))
+                .setPeriodic(interval, interval / 4)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setRequiresBatteryNotLow(true)
+                .setPersisted(true)
+                .build();
+        scheduler.schedule(job);
+        Log.i(TAG, "已排期关注歌单同步，周期: " + interval / 60_000 + " 分钟");
+    }
+
+    /**
+     * 系统要求停止任务时调用，还没开始的下载不再发出。
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * 同步所有关注的歌单，阻塞到所有文件落盘。已有同步在进行时直接返回 null。不要在主线程调用。
+     */
+    public SyncState runSync() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        stopRequested = false;
+        try (Span span = Tracer.beginTrace("playlist sync", null)) {
+            SyncState state = sync();
+            span.detail(state.downloaded() + " 首");
+            return state;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private SyncState sync() {
+        long startTime = SystemClock.elapsedRealtime();
+        List<FollowedPlaylist> followed = getFollowed();
+
+        // 所有歌单的列表一起拉取。线程池每次提交时重新获取，不持有可能已经关闭的实例
+        List<CompletableFuture<List<SongInfo>>> listings = new ArrayList<>();
+        for (FollowedPlaylist playlist : followed) {
+            listings.add(TaskExecutor.getInstance().submit(() -> urlParser.parseUrl(playlist.url())));
+        }
+
+        // 每个歌单一比较完就把它的增量送进流水线：下载完交给转换池，转换完交给存储线程合并保存。
+        // 多个歌单共有的歌，同一种歌词类型只下载一次
+        List<PlaylistDelta> deltas = new ArrayList<>();
+        Map<DownloadKey, SongInfo> pending = new LinkedHashMap<>();
+        List<CompletableFuture<Boolean>> saves = new ArrayList<>();
+        // 转换或存储跟不上时由这里的循环等待，转换线程不会阻塞在存储队列上，原始歌词也不会无限堆积
+        Semaphore pendingSaves = new Semaphore(ConversionPool.getInstance().getPendingLimit());
+        int failedPlaylists = 0;
+        int added = 0;
+        int changed = 0;
+        int removed = 0;
+        for (int i = 0; i < followed.size(); i++) {
+            FollowedPlaylist playlist = followed.get(i);
+            List<SongInfo> current;
+            try {
+                current = listings.get(i).join();
+            } catch (CompletionException e) {
+                failedPlaylists++;
+                Log.w(TAG, "获取关注歌单失败: " + playlist.playlistId() + " - " +
+                        (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+                continue;
+            }
+
+            PlaylistSnapshot previous = snapshotStore.load(playlist.snapshotId());
+            PlaylistSnapshot.Diff diff = PlaylistSnapshot.diff(previous, current);
+            deltas.add(new PlaylistDelta(playlist, previous, current, diff));
+            added += diff.added().size();
+            changed += diff.changed().size();
+            removed += diff.removed().size();
+            Log.i(TAG, "歌单 " + playlist.playlistId() + " - " + diff);
+
+            for (SongInfo song : diff.toDownload()) {
+                if (pending.putIfAbsent(new DownloadKey(song.getMid(), playlist.lyricType()), song) == null) {
+                    pendingSaves.acquireUninterruptibly();
+                    saves.add(download(song, playlist.lyricType())
+                            .whenComplete((saved, error) -> pendingSaves.release()));
+                }
+            }
+        }
+        CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).join();
+
+        // 下载失败的歌不记入对应歌词类型的快照，下次同步再试
+        Map<FileManager.LyricType, Set<String>> failedMids = new EnumMap<>(FileManager.LyricType.class);
+        int failed = 0;
+        for (Map.Entry<DownloadKey, SongInfo> entry : pending.entrySet()) {
+            if (entry.getValue().getDownloadStatus() != SongInfo.DownloadStatus.SUCCESS) {
+                DownloadKey key = entry.getKey();
+                failedMids.computeIfAbsent(key.lyricType(), type -> new HashSet<>()).add(key.mid());
+                failed++;
+            }
+        }
+        for (PlaylistDelta delta : deltas) {
+            FollowedPlaylist playlist = delta.playlist();
+            try {
+                snapshotStore.save(PlaylistSnapshot.afterSync(playlist.snapshotId(), delta.previous(),
+                        delta.current(), failedMids.getOrDefault(playlist.lyricType(), Collections.emptySet())));
+            } catch (IOException e) {
+                Log.w(TAG, "保存歌单快照失败: " + playlist.snapshotId() + " - " + e.getMessage());
+            }
+        }
+
+        SyncState state = new SyncState(System.currentTimeMillis(), SystemClock.elapsedRealtime() - startTime,
+                followed.size(), failedPlaylists, added, changed, removed,
+                pending.size() - failed, failed);
+        saveState(state);
+        return state;
+    }
+
+    private CompletableFuture<Boolean> download(SongInfo song, FileManager.LyricType lyricType) {
+        LyricService.LyricType serviceLyricType = lyricType == FileManager.LyricType.NORMAL ?
+                LyricService.LyricType.NORMAL : LyricService.LyricType.WORD_BY_WORD;
+        Callable<String> fetch = lyricService.createFetchTask(song, serviceLyricType);
+
+        // 系统要求停止后，还没开始的歌不再请求，记为失败，下次同步重试
+        return TaskExecutor.getInstance().submitWithRetry(() -> stopRequested ? null : fetch.call(),
+                        Tuning.current().maxRetryCount(), song.getMid())
+                .thenCompose(rawLyric -> rawLyric == null ?
+                        CompletableFuture.completedFuture(false) :
+                        lyricService.convertAsync(rawLyric, serviceLyricType, song.getMid())
+                                .thenCompose(content -> submitToStorage(
+                                        new FileManager.LyricFile(song.getFileName(), content, lyricType), rawLyric)))
+                .handle((success, error) -> {
+                    boolean saved = error == null && success;
+                    song.setDownloadStatus(saved ? SongInfo.DownloadStatus.SUCCESS : SongInfo.DownloadStatus.FAILED);
+                    return saved;
+                });
+    }
+
+    // 队列满时会阻塞调用线程
+    private CompletableFuture<Boolean> submitToStorage(FileManager.LyricFile file, String rawLyric) {
+        try {
+            return StorageWriter.getInstance(context).submit(file, rawLyric);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private void saveState(SyncState state) {
+        // 有变化或有失败时恢复基础周期，否则累计一次空闲
+        boolean idle = !state.hasChanges() && state.failed() == 0 && state.failedPlaylists() == 0;
+        int idleRuns = idle ? prefs.getInt(KEY_IDLE_RUNS, 0) + 1 : 0;
+        SharedPreferences.Editor editor = prefs.edit().putInt(KEY_IDLE_RUNS, idleRuns);
+        try {
+            editor.putString(KEY_LAST_STATE, state.toJson().toString());
+        } catch (JSONException e) {
+            Log.w(TAG, "保存同步状态失败: " + e.getMessage());
+        }
+        editor.apply();
+    }
+
+    private void saveFollowed(List<FollowedPlaylist> followed) {
+        JSONArray array = new JSONArray();
+        try {
+            for (FollowedPlaylist playlist : followed) {
+                array.put(new JSONObject()
+                        .put("id", playlist.playlistId())
+                        .put("url", playlist.url())
+                        .put("type", playlist.lyricType().name()));
+            }
+        } catch (JSONException e) {
+            Log.w(TAG, "保存关注歌单失败: " + e.getMessage());
+            return;
+        }
+        prefs.edit().putString(KEY_FOLLOWED, array.toString()).apply();
+    }
+}
@@ -0,0 +1,104 @@
+// SessionSaver.java
+package com.kenny.spldownloader.manager;
+
+import android.content.Context;
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.storage.SessionSnapshot;
+import com.kenny.spldownloader.storage.SessionSnapshotStore;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 界面状态的会话快照。状态变化时只记下最新的快照，由 {@link TaskExecutor} 的定时线程
+ * 最多每 {@link AppConfig#SESSION_SAVE_DELAY_MS} 写一次文件，流式加载、批量下载时的连续变化合并成一次写入。
+ * 创建时就在后台开始读取上次的快照，冷启动时界面可以在第一帧之前拿到结果。
+ */
+public class SessionSaver {
+    private static final String TAG = "SessionSaver";
+    private static final String SNAPSHOT_FILE = "session.bin";
+    private static SessionSaver instance;
+
+    private final SessionSnapshotStore store;
+    private final CompletableFuture<SessionSnapshot> restored;
+    private final AtomicReference<SessionSnapshot> latest = new AtomicReference<>();
+    private boolean writeScheduled;
+    private ScheduledFuture<?> pendingWrite;
+
+    private SessionSaver(Context context) {
+        this.store = new SessionSnapshotStore(new File(context.getApplicationContext().getFilesDir(), SNAPSHOT_FILE));
+        this.restored = TaskExecutor.getInstance().submit(() -> {
+            try (Span span = Tracer.begin("restore session")) {
+                SessionSnapshot snapshot = store.load();
+                span.detail(snapshot != null ? snapshot.songs().size() + " 首" : "无快照");
+                return snapshot;
+            }
+        }).exceptionally(e -> {
+            Log.w(TAG, "恢复会话快照失败: " + e.getMessage());
+            return null;
+        });
+    }
+
+    public static synchronized SessionSaver getInstance(Context context) {
+        if (instance == null) {
+            instance = new SessionSaver(context);
+        }
+        return instance;
+    }
+
+    /**
+     * 上次保存的快照，没有时结果为 null；不会以异常完成。
+     */
+    public CompletableFuture<SessionSnapshot> getRestored() {
+        return restored;
+    }
+
+    /**
+     * 记下最新状态，稍后在后台写入，可以频繁调用。
+     */
+    public void requestSave(SessionSnapshot snapshot) {
+        latest.set(snapshot);
+        synchronized (this) {
+            if (!writeScheduled) {
+                writeScheduled = true;
+                pendingWrite = TaskExecutor.getInstance().schedule(this::writeLatest, AppConfig.SESSION_SAVE_DELAY_MS);
+            }
+        }
+    }
+
+    /**
+     * 马上在后台写入还没保存的状态。界面进入后台后进程随时可能被杀，在 onStop 时调用。
+     */
+    public synchronized void flush() {
+        if (latest.get() == null) {
+            return;
+        }
+        if (pendingWrite != null) {
+            pendingWrite.cancel(false);
+        }
+        writeScheduled = true;
+        pendingWrite = TaskExecutor.getInstance().schedule(this::writeLatest, 0);
+    }
+
+    private void writeLatest() {
+        // 先清标记再取快照，之后到来的变化会重新安排一次写入，不会丢失
+        synchronized (this) {
+            writeScheduled = false;
+        }
+        SessionSnapshot snapshot = latest.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        try (Span span = Tracer.begin("save session")) {
+            store.save(snapshot);
+            span.detail(snapshot.songs().size() + " 首");
+        } catch (IOException e) {
+            Log.w(TAG, "保存会话快照失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+// StorageWriter.java
+package com.kenny.spldownloader.manager;
+
+import android.content.Context;
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.storage.ContentHashIndex;
+import com.kenny.spldownloader.storage.RawLyricCache;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写后存储：下载线程只把歌词放进有界队列，由单独的 I/O 线程合并成批后交给
+ * {@link FileManager#saveLyricFiles} 保存。队列满时 {@link #submit} 会阻塞，
+ * 把磁盘的速度反压给下载阶段。逐字歌词的原始 YRC 也随请求带过来，在这里存入缓存。
+ * 内容哈希索引在 I/O 线程上加载，创建实例本身不读磁盘。不要在主线程调用 submit。
+ */
+public class StorageWriter {
+    private static final String TAG = "StorageWriter";
+    private static final String CONTENT_INDEX_FILE = "lyric-hashes.bin";
+    private static final String RAW_CACHE_DIR = "yrc-cache";
+    private static StorageWriter instance;
+
+    private final Context context;
+    private final CompletableFuture<ContentHashIndex> contentIndex = new CompletableFuture<>();
+    private final RawLyricCache rawCache;
+    private final BlockingQueue<WriteRequest> queue =
+            new ArrayBlockingQueue<>(AppConfig.STORAGE_QUEUE_CAPACITY);
+
+    private StorageWriter(Context context) {
+        this.context = context.getApplicationContext();
+        this.rawCache = new RawLyricCache(new File(this.context.getFilesDir(), RAW_CACHE_DIR).toPath());
+        Thread thread = new Thread(this::runLoop, "storage-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static synchronized StorageWriter getInstance(Context context) {
+        if (instance == null) {
+            instance = new StorageWriter(context);
+        }
+        return instance;
+    }
+
+    /**
+     * 提交一个待保存的歌词文件，返回的 Future 在文件真正落盘后完成。
+     */
+    public CompletableFuture<Boolean> submit(FileManager.LyricFile file) throws InterruptedException {
+        return submit(file, null);
+    }
+
+    /**
+     * rawLyric 是逐字歌词转换前的原始 YRC，会在保存前存入 {@link #getRawCache()}，供以后离线重新转换；
+     * 普通歌词或没有原始歌词时传 null。
+     */
+    public CompletableFuture<Boolean> submit(FileManager.LyricFile file, String rawLyric) throws InterruptedException {
+        WriteRequest request = new WriteRequest(file, rawLyric, new CompletableFuture<>());
+        queue.put(request);
+        return request.result();
+    }
+
+    /**
+     * 找出内容完全相同的已保存歌词，每组至少两个路径。先查一次哪些文件已经被删除，
+     * 从索引里去掉后再分组，报告里不会出现已删除的文件。会等待索引加载并查询磁盘，不要在主线程调用。
+     */
+    public List<List<String>> findDuplicates() {
+        ContentHashIndex index = contentIndex.join();
+        List<List<String>> duplicates = index.findDuplicates();
+
+        List<String> paths = new ArrayList<>();
+        List<FileManager.LyricFile> files = new ArrayList<>();
+        for (List<String> group : duplicates) {
+            for (String path : group) {
+                paths.add(path);
+                files.add(lyricFileAt(path));
+            }
+        }
+
+        int removed = 0;
+        for (int start = 0; start < files.size(); start += AppConfig.MEDIASTORE_BATCH_SIZE) {
+            int end = Math.min(files.size(), start + AppConfig.MEDIASTORE_BATCH_SIZE);
+            boolean[] exists = FileManager.filesExist(context, files.subList(start, end));
+            for (int i = 0; i < exists.length; i++) {
+                if (!exists[i]) {
+                    index.remove(paths.get(start + i));
+                    removed++;
+                }
+            }
+        }
+        if (removed == 0) {
+            return duplicates;
+        }
+        int count = removed;
+        Log.d(TAG, () -> "内容索引去掉已删除的文件: " + count + " 个");
+        return index.findDuplicates();
+    }
+
+    public RawLyricCache getRawCache() {
+        return rawCache;
+    }
+
+    // 由 "SPL/歌名 - 歌手.lrc" 这样的索引路径还原出文件，只用于查询是否存在
+    private static FileManager.LyricFile lyricFileAt(String path) {
+        int slash = path.indexOf('/');
+        FileManager.LyricType lyricType = path.substring(0, slash).equals(AppConfig.FOLDER_NORMAL_LRC) ?
+                FileManager.LyricType.NORMAL : FileManager.LyricType.WORD_BY_WORD;
+        return new FileManager.LyricFile(path.substring(slash + 1), "", lyricType);
+    }
+
+    private void runLoop() {
+        contentIndex.complete(new ContentHashIndex(new File(context.getFilesDir(), CONTENT_INDEX_FILE)));
+
+        // 先清理上次意外退出时没写完的文件。这里和下面的索引维护出错都不能让线程退出，
+        // 否则 submit 会永远阻塞，已提交的 Future 也不会完成
+        try {
+            FileManager.cleanupIncompleteFiles(context);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "清理未完成的文件失败: " + e.getMessage(), e);
+        }
+
+        List<WriteRequest> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+                // 等一小段时间，把接下来到达的写入合并进同一批
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AppConfig.STORAGE_COALESCE_MS);
+                while (batch.size() < AppConfig.MEDIASTORE_BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    WriteRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, e);
+                return;
+            }
+
+            writeBatch(batch);
+            batch.clear();
+
+            // 队列空闲时再把索引写回磁盘，避免每批都写一次
+            if (queue.isEmpty()) {
+                try {
+                    contentIndex.join().save();
+                    LibraryIndexer.getInstance(context).refresh();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "更新索引失败: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<WriteRequest> batch) {
+        // 同一个文件在一批里被写多次时只保留最后一次
+        Map<String, List<WriteRequest>> byTarget = new LinkedHashMap<>();
+        Map<String, WriteRequest> latest = new LinkedHashMap<>();
+        for (WriteRequest request : batch) {
+            String key = request.file().lyricType() + "/" + request.file().fileName();
+            byTarget.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+            latest.put(key, request);
+        }
+
+        List<FileManager.LyricFile> files = new ArrayList<>(latest.size());
+        for (WriteRequest request : latest.values()) {
+            files.add(request.file());
+        }
+        try (Span span = Tracer.beginTrace("storage write", null).detail(files.size() + " 个文件")) {
+            // 先缓存原始 YRC，Future 完成时缓存已经可用；缓存失败只记录警告
+            for (WriteRequest request : latest.values()) {
+                if (request.rawLyric() != null && request.file().lyricType() == FileManager.LyricType.WORD_BY_WORD) {
+                    rawCache.put(request.file().fileName(), request.rawLyric());
+                }
+            }
+            boolean[] results = saveChanged(files);
+
+            int index = 0;
+            for (List<WriteRequest> requests : byTarget.values()) {
+                boolean success = results[index++];
+                for (WriteRequest request : requests) {
+                    request.result().complete(success);
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "批量写入失败: " + e.getMessage(), e);
+            failAll(batch, e);
+        }
+
+        if (batch.size() > files.size()) {
+            Log.d(TAG, () -> "合并重复写入: " + batch.size() + " -> " + files.size());
+        }
+    }
+
+    /**
+     * 只写入正文有变化的文件：索引里哈希相同且文件仍然存在的直接视为成功。
+     */
+    private boolean[] saveChanged(List<FileManager.LyricFile> files) {
+        ContentHashIndex contentIndex = this.contentIndex.join();
+        String[] paths = new String[files.size()];
+        long[] hashes = new long[files.size()];
+        List<FileManager.LyricFile> candidates = new ArrayList<>();
+        List<Integer> candidateIndexes = new ArrayList<>();
+
+        for (int i = 0; i < files.size(); i++) {
+            paths[i] = FileManager.getRelativePath(files.get(i));
+            hashes[i] = ContentHashIndex.hash(files.get(i).content());
+            if (contentIndex.isUnchanged(paths[i], hashes[i])) {
+                candidates.add(files.get(i));
+                candidateIndexes.add(i);
+            }
+        }
+
+        // 索引可能过时（用户删过文件），确认文件还在才跳过；已删除的从索引里去掉，写入成功后再记录
+        boolean[] skip = new boolean[files.size()];
+        boolean[] exists = FileManager.filesExist(context, candidates);
+        for (int i = 0; i < exists.length; i++) {
+            int index = candidateIndexes.get(i);
+            skip[index] = exists[i];
+            if (!exists[i]) {
+                contentIndex.remove(paths[index]);
+            }
+        }
+
+        List<FileManager.LyricFile> toWrite = new ArrayList<>();
+        List<Integer> writeIndexes = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (!skip[i]) {
+                toWrite.add(files.get(i));
+                writeIndexes.add(i);
+            }
+        }
+
+        boolean[] results = new boolean[files.size()];
+        boolean[] written = FileManager.saveLyricFiles(context, toWrite);
+        for (int i = 0; i < written.length; i++) {
+            int index = writeIndexes.get(i);
+            results[index] = written[i];
+            if (written[i]) {
+                contentIndex.put(paths[index], hashes[index]);
+            }
+        }
+        for (int i = 0; i < files.size(); i++) {
+            if (skip[i]) {
+                results[i] = true;
+            }
+        }
+
+        int skipped = files.size() - toWrite.size();
+        if (skipped > 0) {
+            Log.d(TAG, () -> "内容未变化，跳过写入: " + skipped + " 个文件");
+        }
+        return results;
+    }
+
+    private static void failAll(List<WriteRequest> batch, Exception e) {
+        for (WriteRequest request : batch) {
+            request.result().completeExceptionally(e);
+        }
+    }
+
+    private record WriteRequest(FileManager.LyricFile file, String rawLyric, CompletableFuture<Boolean> result) {
+    }
+}
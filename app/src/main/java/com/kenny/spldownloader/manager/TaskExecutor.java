@@ -1,19 +1,32 @@
 // TaskExecutor.java
 package com.kenny.spldownloader.manager;
 
-import android.util.Log;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class TaskExecutor {
     private static final String TAG = "TaskExecutor";
     private static TaskExecutor instance;
 
-    private final ExecutorService executorService;
+    private final ThreadPoolExecutor executorService;
     private final ScheduledExecutorService scheduledExecutor;
+    private final Consumer<TuningProfile> tuningListener = profile -> resize(profile.downloadThreads());
 
     private TaskExecutor() {
-        this.executorService = Executors.newFixedThreadPool(3);
+        AtomicInteger threadCount = new AtomicInteger(0);
+        int threads = Tuning.current().downloadThreads();
+        // 线程带上名字，方便在追踪时间线上区分各个工作线程
+        this.executorService = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "download-worker-" + threadCount.incrementAndGet()));
         this.scheduledExecutor = Executors.newScheduledThreadPool(1);
+        Tuning.addListener(tuningListener);
     }
 
     public static synchronized TaskExecutor getInstance() {
@@ -23,6 +36,25 @@ public class TaskExecutor {
         return instance;
     }
 
+    /**
+     * 切换性能配置时调整下载线程数，不需要重建线程池：多出的线程处理完手上的任务后退出，
+     * 新增的线程在有任务排队时立即启动。
+     */
+    private synchronized void resize(int threads) {
+        if (executorService.isShutdown() || threads == executorService.getCorePoolSize()) {
+            return;
+        }
+        // 最大线程数不能小于核心线程数，扩大时先调最大值，缩小时先调核心数
+        if (threads > executorService.getMaximumPoolSize()) {
+            executorService.setMaximumPoolSize(threads);
+            executorService.setCorePoolSize(threads);
+        } else {
+            executorService.setCorePoolSize(threads);
+            executorService.setMaximumPoolSize(threads);
+        }
+        Log.i(TAG, "下载线程数调整为 " + threads);
+    }
+
     public <T> CompletableFuture<T> submit(Callable<T> task) {
         return CompletableFuture.supplyAsync(() -> {
             try {
@@ -34,32 +66,64 @@ public class TaskExecutor {
     }
 
     public <T> CompletableFuture<T> submitWithRetry(Callable<T> task, int maxRetries) {
+        return submitWithRetry(task, maxRetries, null);
+    }
+
+    /**
+     * 带重试地提交任务，traceKey（通常是歌曲 MID）用于把排队、每次尝试和重试等待记录到追踪中。
+     */
+    public <T> CompletableFuture<T> submitWithRetry(Callable<T> task, int maxRetries, String traceKey) {
+        long submittedAt = System.nanoTime();
         return CompletableFuture.supplyAsync(() -> {
-            Exception lastException = null;
+            Tracer.recordAsync("queued", traceKey, submittedAt, System.nanoTime());
 
-            for (int attempt = 1; attempt <= maxRetries; attempt++) {
-                try {
-                    return task.call();
-                } catch (Exception e) {
-                    lastException = e;
-                    Log.w(TAG, "任务执行失败，第 " + attempt + " 次重试，错误: " + e.getMessage());
+            try (Span root = Tracer.beginTrace("task", traceKey)) {
+                Exception lastException = null;
 
-                    if (attempt < maxRetries) {
+                for (int attempt = 1; attempt <= maxRetries; attempt++) {
+                    try (Span span = Tracer.begin("attempt " + attempt)) {
                         try {
-                            Thread.sleep(com.kenny.spldownloader.config.AppConfig.RETRY_DELAY_MS);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new CompletionException(ie);
+                            return task.call();
+                        } catch (Exception e) {
+                            span.detail(e.getMessage());
+                            throw e;
+                        }
+                    } catch (Exception e) {
+                        lastException = e;
+                        Log.w(TAG, "任务执行失败，第 " + attempt + " 次重试，错误: " + e.getMessage());
+
+                        if (attempt < maxRetries) {
+                            try (Span span = Tracer.begin("backoff")) {
+                                Thread.sleep(Tuning.current().retryDelayMs());
+                            } catch (InterruptedException ie) {
+                                Thread.currentThread().interrupt();
+                                throw new CompletionException(ie);
+                            }
                         }
                     }
                 }
-            }
 
-            throw new CompletionException("任务执行失败，已达到最大重试次数", lastException);
+                root.detail(lastException != null ? lastException.getMessage() : null);
+                throw new CompletionException("任务执行失败，已达到最大重试次数", lastException);
+            }
         }, executorService);
     }
 
+    /**
+     * 延迟执行一个轻量任务，如合并后的状态保存；不要在这里做耗时的网络请求。
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        return scheduledExecutor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
     public void shutdown() {
+        Tuning.removeListener(tuningListener);
+        // 关闭后再调用 getInstance 会得到新的实例，后台同步等在界面关闭后仍要用线程池
+        synchronized (TaskExecutor.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
         executorService.shutdown();
         scheduledExecutor.shutdown();
 
@@ -0,0 +1,62 @@
+// TuningManager.java
+package com.kenny.spldownloader.manager;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import java.io.File;
+
+/**
+ * 应用的性能档位：在菜单中选择的预设保存在 SharedPreferences，应用私有目录下的
+ * tuning.properties（可选）再覆盖其中的单项。切换后立即通过 {@link Tuning#apply} 生效，
+ * 下载线程池随之调整大小，不需要重启。
+ */
+public class TuningManager {
+    private static final String PREFS_NAME = "tuning";
+    private static final String KEY_PRESET = "preset";
+    private static final String OVERRIDE_FILE = "tuning.properties";
+    private static TuningManager instance;
+
+    private final SharedPreferences prefs;
+    private final File overrideFile;
+
+    private TuningManager(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.overrideFile = new File(appContext.getFilesDir(), OVERRIDE_FILE);
+    }
+
+    public static synchronized TuningManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new TuningManager(context);
+        }
+        return instance;
+    }
+
+    /**
+     * 在菜单中选择的预设，没有选过时为 balanced。
+     */
+    public TuningProfile getPreset() {
+        TuningProfile preset = TuningProfile.preset(prefs.getString(KEY_PRESET, null));
+        return preset != null ? preset : TuningProfile.BALANCED;
+    }
+
+    public boolean hasOverrideFile() {
+        return overrideFile.isFile();
+    }
+
+    public void setPreset(TuningProfile preset) {
+        prefs.edit().putString(KEY_PRESET, preset.name()).apply();
+        apply();
+    }
+
+    /**
+     * 按保存的预设和覆盖文件计算当前配置并生效。覆盖文件里写了 profile 时以文件为准。
+     */
+    public TuningProfile apply() {
+        TuningProfile profile = Tuning.load(overrideFile, getPreset());
+        Tuning.apply(profile);
+        return profile;
+    }
+}
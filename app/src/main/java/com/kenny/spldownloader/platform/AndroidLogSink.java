@@ -0,0 +1,17 @@
+// AndroidLogSink.java
+package com.kenny.spldownloader.platform;
+
+/**
+ * 把 core 模块的日志转发到 logcat。
+ */
+public class AndroidLogSink implements LogSink {
+
+    @Override
+    public void log(int level, String tag, String message, Throwable throwable) {
+        if (throwable != null) {
+            android.util.Log.println(level, tag, message + '\n' + android.util.Log.getStackTraceString(throwable));
+        } else {
+            android.util.Log.println(level, tag, message);
+        }
+    }
+}
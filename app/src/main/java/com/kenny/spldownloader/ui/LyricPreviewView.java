@@ -0,0 +1,174 @@
+// LyricPreviewView.java
+package com.kenny.spldownloader.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.kenny.spldownloader.R;
+import com.kenny.spldownloader.lyric.LyricTimeline;
+
+/**
+ * 逐字歌词预览：按时钟逐帧绘制当前行和前后几行，已经唱过的字用主题色高亮。
+ * 每帧只在 {@link LyricTimeline} 上做二分查找，绘制过程中不分配对象。
+ */
+public class LyricPreviewView extends View implements Choreographer.FrameCallback {
+    private static final int CONTEXT_LINES = 2;
+
+    private final Paint basePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint highlightPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float lineSpacing;
+
+    private LyricTimeline timeline;
+    private OnPositionChangedListener positionListener;
+
+    // 播放时钟：positionMs 是 anchorUptimeMs 时刻的播放位置
+    private boolean playing;
+    private long positionMs;
+    private long anchorUptimeMs;
+
+    public LyricPreviewView(Context context) {
+        this(context, null);
+    }
+
+    public LyricPreviewView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 18,
+                getResources().getDisplayMetrics());
+        basePaint.setTextSize(textSize);
+        basePaint.setTextAlign(Paint.Align.LEFT);
+        basePaint.setColor(context.getColor(R.color.on_surface_variant));
+        highlightPaint.setTextSize(textSize);
+        highlightPaint.setTextAlign(Paint.Align.LEFT);
+        highlightPaint.setColor(context.getColor(R.color.primary));
+        lineSpacing = textSize * 1.8f;
+    }
+
+    public interface OnPositionChangedListener {
+        void onPositionChanged(long positionMs);
+    }
+
+    public void setOnPositionChangedListener(OnPositionChangedListener listener) {
+        this.positionListener = listener;
+    }
+
+    public void setTimeline(LyricTimeline timeline) {
+        this.timeline = timeline;
+        seekTo(0);
+    }
+
+    public long getDuration() {
+        return timeline != null ? timeline.getDuration() : 0;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public void play() {
+        if (playing || timeline == null) {
+            return;
+        }
+        anchorUptimeMs = SystemClock.uptimeMillis();
+        playing = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    public void pause() {
+        if (!playing) {
+            return;
+        }
+        positionMs = currentPosition();
+        playing = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        invalidate();
+    }
+
+    public void seekTo(long position) {
+        positionMs = Math.max(0, position);
+        anchorUptimeMs = SystemClock.uptimeMillis();
+        invalidate();
+    }
+
+    private long currentPosition() {
+        return playing ? positionMs + (SystemClock.uptimeMillis() - anchorUptimeMs) : positionMs;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!playing) {
+            return;
+        }
+        long position = currentPosition();
+        if (position >= getDuration()) {
+            positionMs = getDuration();
+            playing = false;
+        } else {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+        if (positionListener != null) {
+            positionListener.onPositionChanged(Math.min(position, getDuration()));
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        playing = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (timeline == null || timeline.getLineCount() == 0) {
+            return;
+        }
+
+        long position = currentPosition();
+        int currentLine = Math.max(0, timeline.lineAt(position));
+        int currentWord = timeline.wordAt(position);
+
+        float centerY = getHeight() / 2f;
+        int first = Math.max(0, currentLine - CONTEXT_LINES);
+        int last = Math.min(timeline.getLineCount() - 1, currentLine + CONTEXT_LINES);
+        for (int line = first; line <= last; line++) {
+            String text = timeline.getLineText(line);
+            float textWidth = basePaint.measureText(text);
+            float x = Math.max(getPaddingLeft(), (getWidth() - textWidth) / 2f);
+            float y = centerY + (line - currentLine) * lineSpacing;
+
+            canvas.drawText(text, x, y, basePaint);
+
+            float highlightWidth;
+            if (line < currentLine || (line == currentLine && position >= timeline.getLineEnd(line))) {
+                highlightWidth = textWidth;
+            } else if (line == currentLine && currentWord >= 0) {
+                int charStart = timeline.getWordCharStart(currentWord);
+                int charEnd = timeline.getWordCharEnd(currentWord);
+                highlightWidth = basePaint.measureText(text, 0, charStart) +
+                        basePaint.measureText(text, charStart, charEnd) *
+                                timeline.wordProgress(currentWord, position);
+            } else {
+                highlightWidth = 0;
+            }
+
+            if (highlightWidth > 0) {
+                // 裁剪出已唱部分，用高亮画笔再画一遍
+                canvas.save();
+                canvas.clipRect(x, y - lineSpacing, x + highlightWidth, y + lineSpacing);
+                canvas.drawText(text, x, y, highlightPaint);
+                canvas.restore();
+            }
+        }
+    }
+}
@@ -4,14 +4,22 @@ import android.app.AlertDialog;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.EditText;
+import android.widget.Button;
 import android.widget.RadioGroup;
+import android.widget.SeekBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
@@ -19,21 +27,56 @@ import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.appbar.MaterialToolbar;
 import com.kenny.spldownloader.R;
 import com.kenny.spldownloader.adapter.SongAdapter;
 import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.converter.ConversionPool;
+import com.kenny.spldownloader.converter.LibraryReconverter;
+import com.kenny.spldownloader.export.LyricArchiveWriter;
+import com.kenny.spldownloader.lyric.LyricTimeline;
+import com.kenny.spldownloader.lyric.YrcParser;
 import com.kenny.spldownloader.manager.FileManager;
+import com.kenny.spldownloader.manager.LibraryIndexer;
 import com.kenny.spldownloader.manager.PermissionManager;
+import com.kenny.spldownloader.manager.PlaylistSyncManager;
+import com.kenny.spldownloader.manager.SessionSaver;
+import com.kenny.spldownloader.manager.StorageWriter;
 import com.kenny.spldownloader.manager.TaskExecutor;
+import com.kenny.spldownloader.manager.TuningManager;
+import com.kenny.spldownloader.metrics.Metrics;
 import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.network.ApiClient;
+import com.kenny.spldownloader.network.CircuitBreaker;
+import com.kenny.spldownloader.network.ConnectionWarmer;
+import com.kenny.spldownloader.service.BulkInputResolver;
 import com.kenny.spldownloader.service.LyricService;
 import com.kenny.spldownloader.service.UrlParser;
+import com.kenny.spldownloader.storage.SessionSnapshot;
+import com.kenny.spldownloader.trace.Tracer;
 import com.kenny.spldownloader.viewmodel.SongViewModel;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -53,9 +96,21 @@ public class MainActivity extends AppCompatActivity {
     private LyricService lyricService;
     private UrlParser urlParser;
     private TaskExecutor taskExecutor;
+    private LibraryIndexer libraryIndexer;
+    private PlaylistSyncManager playlistSyncManager;
+    private SessionSaver sessionSaver;
+
+    // 选择压缩包保存位置
+    private final ActivityResultLauncher<String> exportArchiveLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/zip"),
+            uri -> {
+                if (uri != null) {
+                    startArchiveExport(uri);
+                }
+            });
 
-    // 分页相关常量
-    private static final int PAGE_SIZE = 20;
+    // 搜索分页大小在搜索第一页时从性能配置读取，同一次搜索的后续页保持一致
+    private int searchPageSize;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -66,6 +121,7 @@ public class MainActivity extends AppCompatActivity {
         initViews();
         setupPagination();
         setupObservers();
+        restoreSession();
         checkPermissions();
         initNotificationChannel();
     }
@@ -75,6 +131,77 @@ public class MainActivity extends AppCompatActivity {
         lyricService = new LyricService();
         urlParser = new UrlParser();
         taskExecutor = TaskExecutor.getInstance();
+        // 存储线程在后台创建，启动时不碰磁盘
+        taskExecutor.submit(() -> StorageWriter.getInstance(this));
+        libraryIndexer = LibraryIndexer.getInstance(this);
+        playlistSyncManager = PlaylistSyncManager.getInstance(this);
+        sessionSaver = SessionSaver.getInstance(this);
+
+        // 监听器只引用 ViewModel 和应用级的 SessionSaver，不会让 ViewModel 持有 Activity
+        SongViewModel viewModel = songViewModel;
+        SessionSaver saver = sessionSaver;
+        viewModel.setOnStateChangedListener(() -> saver.requestSave(viewModel.snapshot()));
+    }
+
+    /**
+     * 进程被杀后冷启动时用上次的会话快照恢复列表，不需要联网。快照在 Application 创建时已开始在后台读取，
+     * 第一帧最多等待 SESSION_RESTORE_WAIT_MS：读完就在第一帧之前填好列表，超时则读完后再显示。
+     * 屏幕旋转等情况 ViewModel 里已有状态，不再恢复。
+     */
+    private void restoreSession() {
+        if (songViewModel.isSessionRestored()) {
+            return;
+        }
+        songViewModel.markSessionRestored();
+
+        CompletableFuture<SessionSnapshot> restored = sessionSaver.getRestored();
+        View content = findViewById(android.R.id.content);
+        long deadline = SystemClock.uptimeMillis() + AppConfig.SESSION_RESTORE_WAIT_MS;
+        content.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (restored.isDone()) {
+                    content.getViewTreeObserver().removeOnPreDrawListener(this);
+                    // 这一帧放弃绘制，下一帧带着恢复的列表重新布局
+                    return !applySession(restored.getNow(null));
+                }
+                if (SystemClock.uptimeMillis() >= deadline) {
+                    content.getViewTreeObserver().removeOnPreDrawListener(this);
+                    return true;
+                }
+                return false;
+            }
+        });
+        restored.thenAccept(snapshot -> runOnUiThread(() -> applySession(snapshot)));
+    }
+
+    // 列表仍为空且没有正在进行的解析时才恢复，返回是否真的恢复了
+    private boolean applySession(SessionSnapshot snapshot) {
+        List<SongInfo> current = songViewModel.getSongList().getValue();
+        if (snapshot == null || snapshot.songs().isEmpty() || (current != null && !current.isEmpty()) ||
+                Boolean.TRUE.equals(songViewModel.getIsLoading().getValue())) {
+            return false;
+        }
+        songViewModel.restore(snapshot);
+        if (snapshot.searchMode() && etUrl.getText().length() == 0) {
+            etUrl.setText(snapshot.keyword());
+        }
+        Log.d(TAG, "已恢复会话快照: " + snapshot.songs().size() + " 首歌曲");
+        return true;
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // 进入后台后进程随时可能被杀，马上写入还没保存的状态
+        sessionSaver.flush();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // 回到前台时文件可能被其他应用增删过，增量更新一次
+        libraryIndexer.refresh();
     }
 
     private void initViews() {
@@ -87,6 +214,9 @@ public class MainActivity extends AppCompatActivity {
         tvStatus = findViewById(R.id.tv_status);
         recyclerView = findViewById(R.id.recycler_view);
 
+        // 设置工具栏菜单
+        setupToolbar();
+
         // 设置RecyclerView
         setupRecyclerView();
 
@@ -94,6 +224,259 @@ public class MainActivity extends AppCompatActivity {
         setupButtonListeners();
     }
 
+    private void setupToolbar() {
+        MaterialToolbar toolbar = findViewById(R.id.toolbar);
+        toolbar.inflateMenu(R.menu.menu_main);
+
+        // 性能统计只在调试包中提供
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        toolbar.getMenu().findItem(R.id.action_metrics).setVisible(debuggable);
+        toolbar.getMenu().findItem(R.id.action_export_trace).setVisible(debuggable);
+
+        toolbar.setOnMenuItemClickListener(item -> {
+            if (item.getItemId() == R.id.action_metrics) {
+                showMetricsDialog();
+                return true;
+            } else if (item.getItemId() == R.id.action_export_archive) {
+                List<SongInfo> songs = songViewModel.getSongList().getValue();
+                if (songs == null || songs.isEmpty()) {
+                    showToast("没有可导出的歌曲");
+                } else {
+                    exportArchiveLauncher.launch("lyrics-" + System.currentTimeMillis() + ".zip");
+                }
+                return true;
+            } else if (item.getItemId() == R.id.action_export_trace) {
+                exportTrace();
+                return true;
+            } else if (item.getItemId() == R.id.action_followed) {
+                showFollowedDialog();
+                return true;
+            } else if (item.getItemId() == R.id.action_duplicates) {
+                showDuplicatesDialog();
+                return true;
+            } else if (item.getItemId() == R.id.action_reconvert) {
+                startLibraryReconvert();
+                return true;
+            } else if (item.getItemId() == R.id.action_tuning) {
+                showTuningDialog();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void showMetricsDialog() {
+        String report = buildMetricsReport();
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.action_metrics)
+                .setMessage(report)
+                .setPositiveButton("导出", (dialog, which) -> exportMetrics(report))
+                .setNeutralButton("清零", (dialog, which) -> {
+                    Metrics.reset();
+                    showToast("统计已清零");
+                })
+                .setNegativeButton("关闭", null)
+                .show();
+    }
+
+    private void showDuplicatesDialog() {
+        // 查重要等索引加载并确认文件是否还在，放到后台做
+        taskExecutor.submit(() -> StorageWriter.getInstance(this).findDuplicates())
+                .whenComplete((duplicates, throwable) -> runOnUiThread(() -> {
+                    if (throwable != null) {
+                        showErrorDialog("查找失败", throwable.getMessage());
+                    } else {
+                        showDuplicatesDialog(duplicates);
+                    }
+                }));
+    }
+
+    private void showDuplicatesDialog(List<List<String>> duplicates) {
+        String message;
+        if (duplicates.isEmpty()) {
+            message = "没有发现内容相同的歌词";
+        } else {
+            StringBuilder builder = new StringBuilder();
+            builder.append("共 ").append(duplicates.size()).append(" 组内容完全相同:\n");
+            for (List<String> group : duplicates) {
+                builder.append('\n');
+                for (String path : group) {
+                    builder.append(path).append('\n');
+                }
+            }
+            message = builder.toString();
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.action_duplicates)
+                .setMessage(message)
+                .setPositiveButton("关闭", null)
+                .show();
+    }
+
+    /**
+     * 选择性能档位，立即生效：之后的请求使用新的超时和重试，下载线程池直接调整大小。
+     */
+    private void showTuningDialog() {
+        TuningManager tuningManager = TuningManager.getInstance(this);
+        List<TuningProfile> presets = TuningProfile.presets();
+        String[] labels = {"省流量（慢速或按流量计费的网络）", "均衡（默认）", "激进（快速 Wi-Fi）"};
+        int checked = presets.indexOf(tuningManager.getPreset());
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.action_tuning)
+                .setSingleChoiceItems(labels, checked, (dialog, which) -> {
+                    tuningManager.setPreset(presets.get(which));
+                    dialog.dismiss();
+                    String message = "当前性能配置: " + Tuning.current();
+                    if (tuningManager.hasOverrideFile()) {
+                        message += "\n（部分参数被 tuning.properties 覆盖）";
+                    }
+                    showToast(message);
+                })
+                .setNegativeButton("取消", null)
+                .show();
+    }
+
+    /**
+     * 关注的歌单和上次后台同步的结果。输入框里是未关注的歌单链接时可以直接关注。
+     */
+    private void showFollowedDialog() {
+        List<PlaylistSyncManager.FollowedPlaylist> followed = playlistSyncManager.getFollowed();
+        String input = etUrl.getText().toString().trim();
+        String inputPlaylistId = UrlParser.playlistIdOf(input);
+        boolean canFollowInput = inputPlaylistId != null && !inputPlaylistId.isEmpty() &&
+                followed.stream().noneMatch(playlist -> playlist.playlistId().equals(inputPlaylistId));
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this)
+                .setTitle(R.string.action_followed)
+                .setMessage(buildSyncReport(followed));
+        if (!followed.isEmpty()) {
+            builder.setPositiveButton("立即同步", (dialog, which) -> startPlaylistSync());
+            builder.setNegativeButton("取消关注", (dialog, which) -> showUnfollowDialog(followed));
+        }
+        if (canFollowInput) {
+            builder.setNeutralButton("关注输入的歌单", (dialog, which) -> {
+                playlistSyncManager.follow(input, getSelectedLyricType());
+                showToast("已关注歌单 " + inputPlaylistId + "，将在后台定期同步");
+            });
+        }
+        builder.show();
+    }
+
+    private String buildSyncReport(List<PlaylistSyncManager.FollowedPlaylist> followed) {
+        if (followed.isEmpty()) {
+            return "还没有关注的歌单。在输入框中填入歌单链接后，可以在这里关注，之后会在后台定期同步新增的歌曲。";
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append("关注 ").append(followed.size()).append(" 个歌单:\n");
+        for (PlaylistSyncManager.FollowedPlaylist playlist : followed) {
+            report.append("  ").append(playlist.playlistId())
+                    .append(playlist.lyricType() == FileManager.LyricType.NORMAL ? "（普通歌词）" : "（逐字歌词）")
+                    .append('\n');
+        }
+
+        report.append('\n');
+        PlaylistSyncManager.SyncState state = playlistSyncManager.getLastState();
+        if (playlistSyncManager.isRunning()) {
+            report.append("正在同步...\n");
+        } else if (state == null) {
+            report.append("还没有同步过\n");
+        } else {
+            report.append("上次同步: ")
+                    .append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT)
+                            .format(new Date(state.finishedAt())))
+                    .append("，耗时 ").append(state.durationMs()).append("ms\n");
+            report.append("新增 ").append(state.added()).append(" 首, 变化 ").append(state.changed())
+                    .append(" 首, 移除 ").append(state.removed()).append(" 首\n");
+            report.append("下载成功 ").append(state.downloaded()).append(" 首, 失败 ").append(state.failed())
+                    .append(" 首\n");
+            if (state.failedPlaylists() > 0) {
+                report.append("获取失败的歌单: ").append(state.failedPlaylists()).append(" 个\n");
+            }
+        }
+        report.append("同步周期: 约 ").append(playlistSyncManager.getIntervalMs() / 3_600_000L).append(" 小时");
+        return report.toString();
+    }
+
+    private void showUnfollowDialog(List<PlaylistSyncManager.FollowedPlaylist> followed) {
+        String[] items = new String[followed.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = followed.get(i).playlistId();
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("取消关注")
+                .setItems(items, (dialog, which) -> {
+                    playlistSyncManager.unfollow(items[which]);
+                    showToast("已取消关注歌单 " + items[which]);
+                })
+                .setNegativeButton("取消", null)
+                .show();
+    }
+
+    private void startPlaylistSync() {
+        if (playlistSyncManager.isRunning()) {
+            showToast("正在同步中");
+            return;
+        }
+        showToast("开始同步关注的歌单");
+
+        new Thread(() -> {
+            PlaylistSyncManager.SyncState state = playlistSyncManager.runSync();
+            playlistSyncManager.scheduleIfNeeded();
+            if (state == null) {
+                return;
+            }
+            String message = state.hasChanges() ?
+                    "同步完成: 下载 " + state.downloaded() + " 首, 失败 " + state.failed() + " 首" :
+                    "关注的歌单没有变化";
+            runOnUiThread(() -> sendNotification("歌单同步", message, state.failed() == 0));
+        }, "playlist-sync").start();
+    }
+
+    private String buildMetricsReport() {
+        StringBuilder report = new StringBuilder(Metrics.dump());
+        report.append("\n节点状态:\n");
+        for (CircuitBreaker.Snapshot state : ApiClient.getInstance().getEndpointStates()) {
+            report.append(state).append('\n');
+        }
+        report.append("\n连接预热:\n").append(ConnectionWarmer.getInstance().getReport());
+        return report.toString();
+    }
+
+    private void exportMetrics(String report) {
+        File file = new File(getExternalFilesDir(null), "metrics-" + System.currentTimeMillis() + ".txt");
+        new Thread(() -> {
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(report.getBytes(StandardCharsets.UTF_8));
+                runOnUiThread(() -> showToast("已导出到: " + file.getAbsolutePath()));
+            } catch (Exception e) {
+                Log.e(TAG, "导出性能统计失败: " + e.getMessage(), e);
+                runOnUiThread(() -> showToast("导出失败: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    private void exportTrace() {
+        if (Tracer.size() == 0) {
+            showToast("暂无追踪记录");
+            return;
+        }
+
+        File file = new File(getExternalFilesDir(null), "trace-" + System.currentTimeMillis() + ".json");
+        new Thread(() -> {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                Tracer.exportChromeTrace(writer);
+                runOnUiThread(() -> showToast("已导出到: " + file.getAbsolutePath()));
+            } catch (Exception e) {
+                Log.e(TAG, "导出追踪失败: " + e.getMessage(), e);
+                runOnUiThread(() -> showToast("导出失败: " + e.getMessage()));
+            }
+        }).start();
+    }
+
     private void setupRecyclerView() {
         adapter = new SongAdapter(this);
         LinearLayoutManager layoutManager = new LinearLayoutManager(this);
@@ -103,6 +486,11 @@ public class MainActivity extends AppCompatActivity {
 
         // 设置点击监听器
         adapter.setOnItemClickListener(this::showDownloadDialog);
+        adapter.setOnItemLongClickListener((song, position) -> showLyricPreview(song));
+
+        // 已下载标记只查内存索引，索引更新后再刷新列表
+        adapter.setDownloadedChecker(libraryIndexer::isDownloaded);
+        libraryIndexer.setOnChangedListener(adapter::refreshDownloadedMarks);
     }
 
     private void setupPagination() {
@@ -216,7 +604,11 @@ public class MainActivity extends AppCompatActivity {
         songViewModel.setLoading(true);
 
         // 自动判断输入类型
-        if (isUrl(input)) {
+        if (BulkInputResolver.isBulkInput(input)) {
+            showStatus("正在批量解析...");
+            songViewModel.setSearchMode(false);
+            parseBulkInput(input);
+        } else if (isUrl(input)) {
             showStatus("正在解析链接...");
             songViewModel.setSearchMode(false);
             parseUrl(input);
@@ -229,7 +621,8 @@ public class MainActivity extends AppCompatActivity {
 
     private boolean isUrl(String input) {
         return input.startsWith("http://") || input.startsWith("https://") ||
-                input.contains("qq.com") || input.contains("y.qq.com");
+                input.contains("qq.com") || input.contains("y.qq.com") ||
+                UrlParser.isPagedList(UrlParser.classify(input));
     }
 
     private void parseUrl(String url) {
@@ -237,10 +630,25 @@ public class MainActivity extends AppCompatActivity {
         new Thread(() -> {
             try {
                 Log.d(TAG, "开始解析URL: " + url);
-                List<SongInfo> songs = urlParser.parseUrl(url);
+                // 歌单、专辑、歌手按页并发获取，每取到一页就加进列表
+                AtomicBoolean streamed = new AtomicBoolean(false);
+                List<SongInfo> songs = urlParser.parseUrl(url, (page, pageSongs) -> {
+                    streamed.set(true);
+                    runOnUiThread(() -> {
+                        if (page == 1) {
+                            songViewModel.setSongList(pageSongs);
+                        } else {
+                            songViewModel.appendUniqueSongs(pageSongs);
+                        }
+                        List<SongInfo> loaded = songViewModel.getSongList().getValue();
+                        showStatus("已加载 " + (loaded != null ? loaded.size() : 0) + " 首歌曲...");
+                    });
+                });
 
                 runOnUiThread(() -> {
-                    songViewModel.setSongList(songs);
+                    if (!streamed.get()) {
+                        songViewModel.setSongList(songs);
+                    }
                     songViewModel.setLoading(false);
                     showToast("解析成功，找到 " + songs.size() + " 首歌曲");
                     Log.d(TAG, "URL解析成功，歌曲数量: " + songs.size());
@@ -259,9 +667,39 @@ public class MainActivity extends AppCompatActivity {
         }).start();
     }
 
+    /**
+     * 多行输入：每行一个链接、MID 或关键词，并发解析后合并成一个列表，失败的行单独列出。
+     */
+    private void parseBulkInput(String text) {
+        new Thread(() -> {
+            BulkInputResolver.Result result = new BulkInputResolver(urlParser, AppConfig.BULK_RESOLVE_CONCURRENCY)
+                    .resolve(text);
+            List<BulkInputResolver.LineResult> failures = result.failures();
+
+            runOnUiThread(() -> {
+                songViewModel.setSongList(result.songs());
+                songViewModel.setLoading(false);
+                showToast("解析完成: " + (result.lines().size() - failures.size()) + "/" +
+                        result.lines().size() + " 行成功，共 " + result.songs().size() + " 首歌曲");
+                if (!failures.isEmpty()) {
+                    StringBuilder message = new StringBuilder();
+                    for (BulkInputResolver.LineResult failure : failures) {
+                        message.append(failure).append('\n');
+                    }
+                    showErrorDialog("部分内容解析失败", message.toString().trim());
+                }
+            });
+        }, "bulk-input").start();
+    }
+
     private void searchSongs(String keyword, int page) {
         songViewModel.setCurrentSearchKeyword(keyword);
 
+        if (page == 1 || searchPageSize == 0) {
+            searchPageSize = Tuning.current().searchPageSize();
+        }
+        int pageSize = searchPageSize;
+
         if (page == 1) {
             songViewModel.setLoading(true);
             songViewModel.resetPagination();
@@ -274,7 +712,7 @@ public class MainActivity extends AppCompatActivity {
         new Thread(() -> {
             try {
                 Log.d(TAG, "开始搜索: " + keyword + ", 页码: " + page);
-                List<SongInfo> songs = urlParser.searchByKeyword(keyword, page, PAGE_SIZE);
+                List<SongInfo> songs = urlParser.searchByKeyword(keyword, page, pageSize);
 
                 runOnUiThread(() -> {
                     if (page == 1) {
@@ -288,7 +726,7 @@ public class MainActivity extends AppCompatActivity {
                         songViewModel.setLoadMoreLoading(false);
                         adapter.setLoading(false);
 
-                        if (songs.size() < PAGE_SIZE) {
+                        if (songs.size() < pageSize) {
                             // 没有更多数据了
                             songViewModel.setHasMoreData(false);
                             adapter.setHasMoreData(false);
@@ -302,7 +740,7 @@ public class MainActivity extends AppCompatActivity {
                     if (!songs.isEmpty()) {
                         songViewModel.incrementPage();
                         // 只有在搜索模式下并且返回了完整一页数据时才显示加载更多
-                        if (songs.size() == PAGE_SIZE) {
+                        if (songs.size() == pageSize) {
                             songViewModel.setHasMoreData(true);
                         }
                     }
@@ -351,43 +789,187 @@ public class MainActivity extends AppCompatActivity {
                 .show();
     }
 
+    /**
+     * 长按歌曲：下载逐字歌词并建立时间轴，在对话框里逐字高亮预览，可拖动进度条跳转。
+     */
+    private void showLyricPreview(SongInfo song) {
+        showStatus("正在加载《" + song.getSongName() + "》的逐字歌词...");
+        taskExecutor.submitWithRetry(
+                lyricService.createFetchTask(song, LyricService.LyricType.WORD_BY_WORD),
+                Tuning.current().maxRetryCount(),
+                song.getMid()
+        ).thenApply(yrc -> LyricTimeline.build(new YrcParser().parse(yrc)))
+                .whenComplete((timeline, throwable) -> runOnUiThread(() -> {
+                    hideStatus();
+                    if (throwable != null) {
+                        showErrorDialog("加载失败", throwable.getMessage());
+                    } else if (timeline.getLineCount() == 0) {
+                        showToast("没有可预览的歌词");
+                    } else {
+                        showLyricPreviewDialog(song, timeline);
+                    }
+                }));
+    }
+
+    private void showLyricPreviewDialog(SongInfo song, LyricTimeline timeline) {
+        View content = getLayoutInflater().inflate(R.layout.dialog_lyric_preview, null);
+        LyricPreviewView preview = content.findViewById(R.id.lyric_preview);
+        SeekBar seekBar = content.findViewById(R.id.seek_preview);
+        TextView tvTime = content.findViewById(R.id.tv_preview_time);
+
+        long duration = timeline.getDuration();
+        seekBar.setMax((int) duration);
+        preview.setTimeline(timeline);
+        String durationText = " / " + formatPreviewTime(duration);
+        // 位置每帧都会回调，只在显示的秒数变化时才格式化时间，其余帧不产生新对象
+        long[] shownSecond = {-1};
+        LongConsumer updateTime = position -> {
+            long second = position / 1000;
+            if (second != shownSecond[0]) {
+                shownSecond[0] = second;
+                tvTime.setText(formatPreviewTime(position) + durationText);
+            }
+        };
+        preview.setOnPositionChangedListener(position -> {
+            seekBar.setProgress((int) position);
+            updateTime.accept(position);
+        });
+        updateTime.accept(0);
+        seekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar bar, int progress, boolean fromUser) {
+                if (fromUser) {
+                    preview.seekTo(progress);
+                    updateTime.accept(progress);
+                }
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar bar) {
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar bar) {
+            }
+        });
+
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle(song.getSongName())
+                .setView(content)
+                .setPositiveButton(R.string.preview_pause, null)
+                .setNegativeButton("关闭", null)
+                .create();
+        dialog.setOnShowListener(d -> {
+            Button toggle = dialog.getButton(AlertDialog.BUTTON_POSITIVE);
+            // 自己处理点击，避免对话框被关闭
+            toggle.setOnClickListener(v -> {
+                if (preview.isPlaying()) {
+                    preview.pause();
+                    toggle.setText(R.string.preview_play);
+                } else {
+                    if (preview.getDuration() > 0 && seekBar.getProgress() >= seekBar.getMax()) {
+                        preview.seekTo(0);
+                    }
+                    preview.play();
+                    toggle.setText(R.string.preview_pause);
+                }
+            });
+            preview.play();
+        });
+        dialog.show();
+    }
+
+    private static String formatPreviewTime(long millis) {
+        long seconds = millis / 1000;
+        return String.format(Locale.US, "%02d:%02d", seconds / 60, seconds % 60);
+    }
+
     private void startSingleDownload(SongInfo song, FileManager.LyricType lyricType, int position) {
         songViewModel.setLoading(true);
         showStatus("正在下载《" + song.getSongName() + "》的歌词...");
 
-        CompletableFuture<String> future = taskExecutor.submitWithRetry(
-                lyricService.createDownloadTask(song, convertLyricType(lyricType)),
-                AppConfig.MAX_RETRY_COUNT
+        // 网络线程只负责下载，YRC 转换交给转换池
+        LyricService.LyricType serviceLyricType = convertLyricType(lyricType);
+        CompletableFuture<String> fetch = taskExecutor.submitWithRetry(
+                lyricService.createFetchTask(song, serviceLyricType),
+                Tuning.current().maxRetryCount(),
+                song.getMid()
         );
+        CompletableFuture<String> future =
+                fetch.thenCompose(rawLyric -> lyricService.convertAsync(rawLyric, serviceLyricType, song.getMid()));
 
-        future.whenComplete((lyricContent, throwable) -> runOnUiThread(() -> {
-            songViewModel.setLoading(false);
-
+        future.whenComplete((lyricContent, throwable) -> {
             if (throwable != null) {
                 // 下载失败
-                songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.FAILED);
-                showErrorDialog("下载失败", throwable.getMessage());
-                sendNotification("下载失败", song.getSongName() + " - " + throwable.getMessage(), false);
-            } else {
-                // 下载成功，保存文件
-                boolean success = FileManager.saveLyricFile(
-                        MainActivity.this,
-                        song.getFileName(),
-                        lyricContent,
-                        lyricType
-                );
-
-                if (success) {
-                    songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.SUCCESS);
-                    showToast("《" + song.getSongName() + "》下载成功");
-                    String folder = lyricType == FileManager.LyricType.NORMAL ? "LRC" : "SPL";
-                    sendNotification("下载成功", song.getSongName() + " - 保存到: Download/" + folder, true);
-                } else {
+                runOnUiThread(() -> {
+                    songViewModel.setLoading(false);
                     songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.FAILED);
-                    showErrorDialog("保存失败", "无法保存歌词文件");
-                }
+                    showErrorDialog("下载失败", throwable.getMessage());
+                    sendNotification("下载失败", song.getSongName() + " - " + throwable.getMessage(), false);
+                });
+                return;
+            }
+
+            // 下载成功，连同原始歌词交给存储线程保存，主线程不做文件写入
+            submitToStorage(new FileManager.LyricFile(song.getFileName(), lyricContent, lyricType), fetch.join())
+                    .whenComplete((success, saveError) -> runOnUiThread(() -> {
+                        songViewModel.setLoading(false);
+
+                        if (saveError == null && success) {
+                            songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.SUCCESS);
+                            showToast("《" + song.getSongName() + "》下载成功");
+                            String folder = lyricType == FileManager.LyricType.NORMAL ? "LRC" : "SPL";
+                            sendNotification("下载成功", song.getSongName() + " - 保存到: Download/" + folder, true);
+                        } else {
+                            songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.FAILED);
+                            showErrorDialog("保存失败", "无法保存歌词文件");
+                        }
+                    }));
+        });
+    }
+
+    // 队列满时会阻塞调用线程，只能在后台线程调用
+    private CompletableFuture<Boolean> submitToStorage(FileManager.LyricFile file) {
+        return submitToStorage(file, null);
+    }
+
+    private CompletableFuture<Boolean> submitToStorage(FileManager.LyricFile file, String rawLyric) {
+        try {
+            return StorageWriter.getInstance(this).submit(file, rawLyric);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * 用缓存的原始 YRC 重新生成 SPL 目录下的逐字歌词，不联网。
+     */
+    private void startLibraryReconvert() {
+        songViewModel.setLoading(true);
+        showStatus("正在重新转换逐字歌词...");
+
+        taskExecutor.submit(() -> {
+            List<CompletableFuture<Boolean>> saves = Collections.synchronizedList(new ArrayList<>());
+            LibraryReconverter.Result result = new LibraryReconverter().reconvert(StorageWriter.getInstance(this).getRawCache(),
+                    (fileName, content) -> saves.add(submitToStorage(
+                            new FileManager.LyricFile(fileName, content, FileManager.LyricType.WORD_BY_WORD))));
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).join();
+
+            long saved = saves.stream().filter(CompletableFuture::join).count();
+            return result.total() == 0 ?
+                    "没有缓存的原始歌词，请先下载逐字歌词" :
+                    "重新转换完成: 成功 " + saved + " 首, 失败 " + (result.total() - saved) + " 首";
+        }).whenComplete((message, throwable) -> {
+            if (throwable != null) {
+                Log.e(TAG, "重新转换失败: " + throwable.getMessage(), throwable);
             }
-        }));
+            runOnUiThread(() -> {
+                songViewModel.setLoading(false);
+                hideStatus();
+                showToast(throwable != null ? "重新转换失败: " + throwable.getMessage() : message);
+            });
+        });
     }
 
     private void startBatchDownload() {
@@ -396,6 +978,7 @@ public class MainActivity extends AppCompatActivity {
 
         songViewModel.setLoading(true);
         FileManager.LyricType lyricType = getSelectedLyricType();
+        LyricService.LyricType serviceLyricType = convertLyricType(lyricType);
 
         // 重置所有歌曲状态
         for (int i = 0; i < songs.size(); i++) {
@@ -410,59 +993,53 @@ public class MainActivity extends AppCompatActivity {
 
         // 使用线程执行批量下载
         new Thread(() -> {
+            List<CompletableFuture<Boolean>> saves = new ArrayList<>();
+            // 转换或存储跟不上时在这里等待，而不是让转换线程阻塞在存储队列上
+            Semaphore pendingSaves = new Semaphore(ConversionPool.getInstance().getPendingLimit());
+
             for (int i = 0; i < songs.size(); i++) {
                 SongInfo song = songs.get(i);
                 final int position = i;
 
                 try {
-                    // 下载歌词
-                    String lyricContent = taskExecutor.submitWithRetry(
-                            lyricService.createDownloadTask(song, convertLyricType(lyricType)),
-                            AppConfig.MAX_RETRY_COUNT
+                    // 下载原始歌词
+                    String rawLyric = taskExecutor.submitWithRetry(
+                            lyricService.createFetchTask(song, serviceLyricType),
+                            Tuning.current().maxRetryCount(),
+                            song.getMid()
                     ).get(); // 等待完成
 
-                    // 保存文件
-                    boolean success = FileManager.saveLyricFile(
-                            MainActivity.this,
-                            song.getFileName(),
-                            lyricContent,
-                            lyricType
-                    );
-
-                    if (success) {
-                        successCount.incrementAndGet();
-                        runOnUiThread(() -> {
-                            songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.SUCCESS);
-                            showStatus("批量下载进度: " + (position + 1) + "/" + songs.size() +
-                                    " (成功: " + successCount.get() + ", 失败: " + failCount.get() + ")");
-                        });
-                    } else {
-                        failCount.incrementAndGet();
-                        runOnUiThread(() -> {
-                            songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.FAILED);
-                            showStatus("批量下载进度: " + (position + 1) + "/" + songs.size() +
-                                    " (成功: " + successCount.get() + ", 失败: " + failCount.get() + ")");
-                        });
-                    }
-
+                    // 转换在转换池里进行，不等它完成就去下载下一首；转换完再交给存储线程合并保存
+                    pendingSaves.acquire();
+                    CompletableFuture<Boolean> save = lyricService.convertAsync(rawLyric, serviceLyricType, song.getMid())
+                            .thenCompose(lyricContent -> submitToStorage(
+                                    new FileManager.LyricFile(song.getFileName(), lyricContent, lyricType), rawLyric));
+                    saves.add(save.handle((success, saveError) -> {
+                        pendingSaves.release();
+                        boolean saved = saveError == null && success;
+                        (saved ? successCount : failCount).incrementAndGet();
+                        updateBatchProgress(position,
+                                saved ? SongInfo.DownloadStatus.SUCCESS : SongInfo.DownloadStatus.FAILED,
+                                songs.size(), successCount, failCount);
+                        return saved;
+                    }));
                 } catch (Exception e) {
                     failCount.incrementAndGet();
-                    runOnUiThread(() -> {
-                        songViewModel.updateSongStatus(position, SongInfo.DownloadStatus.FAILED);
-                        showStatus("批量下载进度: " + (position + 1) + "/" + songs.size() +
-                                " (成功: " + successCount.get() + ", 失败: " + failCount.get() + ")");
-                    });
+                    updateBatchProgress(position, SongInfo.DownloadStatus.FAILED, songs.size(), successCount, failCount);
                     Log.e(TAG, "批量下载失败 - 歌曲: " + song.getSongName(), e);
                 }
 
                 // 短暂延迟，避免请求过于频繁
                 try {
-                    Thread.sleep(500);
+                    Thread.sleep(Tuning.current().batchDelayMs());
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
             }
 
+            // 等待所有文件落盘后再报告结果
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).join();
+
             final int finalSuccessCount = successCount.get();
             final int finalFailCount = failCount.get();
 
@@ -473,6 +1050,83 @@ public class MainActivity extends AppCompatActivity {
         }).start();
     }
 
+    /**
+     * 把当前列表的歌词逐首下载后直接写入用户选择的压缩包，不生成单独的歌词文件。
+     */
+    private void startArchiveExport(Uri uri) {
+        List<SongInfo> songs = songViewModel.getSongList().getValue();
+        if (songs == null || songs.isEmpty()) return;
+
+        songViewModel.setLoading(true);
+        FileManager.LyricType lyricType = getSelectedLyricType();
+        LyricService.LyricType serviceLyricType = convertLyricType(lyricType);
+        showStatus("开始导出 " + songs.size() + " 首歌曲到压缩包...");
+
+        new Thread(() -> {
+            int failCount = 0;
+            String error = null;
+
+            try (OutputStream out = getContentResolver().openOutputStream(uri)) {
+                if (out == null) {
+                    throw new IOException("无法打开输出文件");
+                }
+                try (LyricArchiveWriter archive = new LyricArchiveWriter(new BufferedOutputStream(out))) {
+                    for (int i = 0; i < songs.size(); i++) {
+                        SongInfo song = songs.get(i);
+                        try {
+                            // 网络线程只负责下载，转换交给转换池，写压缩包留在本线程保证顺序
+                            String lyricContent = taskExecutor.submitWithRetry(
+                                    lyricService.createFetchTask(song, serviceLyricType),
+                                    Tuning.current().maxRetryCount(),
+                                    song.getMid()
+                            ).thenCompose(rawLyric -> lyricService.convertAsync(rawLyric, serviceLyricType, song.getMid()))
+                                    .get();
+                            archive.add(song, lyricContent, serviceLyricType);
+                        } catch (IOException e) {
+                            // 写压缩包失败无法继续
+                            throw e;
+                        } catch (Exception e) {
+                            failCount++;
+                            archive.addFailure(song, e.getMessage());
+                            Log.e(TAG, "导出失败 - 歌曲: " + song.getSongName(), e);
+                        }
+
+                        int done = i + 1;
+                        int failed = failCount;
+                        runOnUiThread(() -> showStatus("导出进度: " + done + "/" + songs.size() +
+                                " (失败: " + failed + ")"));
+
+                        // 短暂延迟，避免请求过于频繁
+                        Thread.sleep(Tuning.current().batchDelayMs());
+                    }
+                }
+            } catch (Exception e) {
+                error = e.getMessage();
+                Log.e(TAG, "导出压缩包失败: " + e.getMessage(), e);
+            }
+
+            final String finalError = error;
+            final int finalFailCount = failCount;
+            runOnUiThread(() -> {
+                songViewModel.setLoading(false);
+                if (finalError != null) {
+                    showErrorDialog("导出失败", finalError);
+                } else {
+                    showToast("导出完成: 成功 " + (songs.size() - finalFailCount) + " 首, 失败 " + finalFailCount + " 首");
+                }
+            });
+        }).start();
+    }
+
+    private void updateBatchProgress(int position, SongInfo.DownloadStatus status, int total,
+                                     AtomicInteger successCount, AtomicInteger failCount) {
+        runOnUiThread(() -> {
+            songViewModel.updateSongStatus(position, status);
+            showStatus("批量下载进度: " + (position + 1) + "/" + total +
+                    " (成功: " + successCount.get() + ", 失败: " + failCount.get() + ")");
+        });
+    }
+
     private FileManager.LyricType getSelectedLyricType() {
         int selectedId = rgLyricType.getCheckedRadioButtonId();
         if (selectedId == R.id.rb_word_by_word) {
@@ -562,8 +1216,9 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (taskExecutor != null) {
-            taskExecutor.shutdown();
+        if (libraryIndexer != null) {
+            libraryIndexer.setOnChangedListener(null);
         }
+        // 线程池是进程内共用的，后台同步和会话保存在界面关闭后仍在使用，这里不关闭
     }
 }
\ No newline at end of file
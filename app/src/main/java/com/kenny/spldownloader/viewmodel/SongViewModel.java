@@ -6,9 +6,12 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.storage.SessionSnapshot;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class SongViewModel extends ViewModel {
     private final MutableLiveData<List<SongInfo>> songList = new MutableLiveData<>(new ArrayList<>());
@@ -23,6 +26,10 @@ public class SongViewModel extends ViewModel {
     private int currentPage = 1;
     private boolean isSearchMode = false;
 
+    // 会话快照：状态变化时通知保存；sessionRestored 表示本进程已经尝试过恢复
+    private Runnable onStateChangedListener;
+    private boolean sessionRestored = false;
+
     public LiveData<List<SongInfo>> getSongList() { return songList; }
     public LiveData<Boolean> getIsLoading() { return isLoading; }
     public LiveData<String> getErrorMessage() { return errorMessage; }
@@ -34,6 +41,7 @@ public class SongViewModel extends ViewModel {
         songList.setValue(songs != null ? new ArrayList<>(songs) : new ArrayList<>());
         currentPage = 1;
         hasMoreData.setValue(isSearchMode && songs != null && !songs.isEmpty());
+        notifyStateChanged();
     }
 
     public void appendSongList(List<SongInfo> songs) {
@@ -41,14 +49,42 @@ public class SongViewModel extends ViewModel {
         if (current != null && songs != null) {
             current.addAll(songs);
             songList.setValue(new ArrayList<>(current));
+            notifyStateChanged();
         }
     }
 
+    /**
+     * 追加一页分页获取的歌曲，跳过列表里已有 MID 的歌曲，返回实际追加的数量。
+     */
+    public int appendUniqueSongs(List<SongInfo> songs) {
+        List<SongInfo> current = songList.getValue();
+        if (current == null || songs == null) {
+            return 0;
+        }
+        Set<String> loaded = new HashSet<>(current.size() * 2);
+        for (SongInfo song : current) {
+            loaded.add(song.getMid());
+        }
+        int added = 0;
+        for (SongInfo song : songs) {
+            if (loaded.add(song.getMid())) {
+                current.add(song);
+                added++;
+            }
+        }
+        if (added > 0) {
+            songList.setValue(new ArrayList<>(current));
+            notifyStateChanged();
+        }
+        return added;
+    }
+
     public void addSong(SongInfo song) {
         List<SongInfo> current = songList.getValue();
         if (current != null) {
             current.add(song);
             songList.setValue(new ArrayList<>(current));
+            notifyStateChanged();
         }
     }
 
@@ -57,6 +93,7 @@ public class SongViewModel extends ViewModel {
         currentPage = 1;
         currentSearchKeyword = "";
         hasMoreData.setValue(false);
+        notifyStateChanged();
     }
 
     public void setLoading(boolean loading) {
@@ -81,6 +118,7 @@ public class SongViewModel extends ViewModel {
 
     public void setHasMoreData(boolean hasMore) {
         hasMoreData.setValue(isSearchMode && hasMore);
+        notifyStateChanged();
     }
 
     public void updateSongStatus(int position, SongInfo.DownloadStatus status) {
@@ -92,12 +130,14 @@ public class SongViewModel extends ViewModel {
 
             current.set(position, updatedSong);
             songList.postValue(new ArrayList<>(current));
+            notifyStateChanged();
         }
     }
 
     // 分页相关方法
     public void setCurrentSearchKeyword(String keyword) {
         this.currentSearchKeyword = keyword;
+        notifyStateChanged();
     }
 
     public String getCurrentSearchKeyword() {
@@ -110,11 +150,13 @@ public class SongViewModel extends ViewModel {
 
     public void incrementPage() {
         currentPage++;
+        notifyStateChanged();
     }
 
     public void resetPagination() {
         currentPage = 1;
         hasMoreData.setValue(false);
+        notifyStateChanged();
     }
 
     public void setSearchMode(boolean searchMode) {
@@ -122,12 +164,58 @@ public class SongViewModel extends ViewModel {
         if (!searchMode) {
             hasMoreData.setValue(false);
         }
+        notifyStateChanged();
     }
 
     public boolean isSearchMode() {
         return isSearchMode;
     }
 
+    // 会话快照相关方法
+    public void setOnStateChangedListener(Runnable listener) {
+        this.onStateChangedListener = listener;
+    }
+
+    private void notifyStateChanged() {
+        if (onStateChangedListener != null) {
+            onStateChangedListener.run();
+        }
+    }
+
+    /**
+     * 当前状态的快照，只复制列表本身，在主线程调用。
+     */
+    public SessionSnapshot snapshot() {
+        List<SongInfo> current = songList.getValue();
+        return new SessionSnapshot(current != null ? new ArrayList<>(current) : new ArrayList<>(),
+                currentSearchKeyword, currentPage, isSearchMode, Boolean.TRUE.equals(hasMoreData.getValue()),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * 用会话快照恢复状态，不会触发保存。
+     */
+    public void restore(SessionSnapshot snapshot) {
+        isSearchMode = snapshot.searchMode();
+        currentSearchKeyword = snapshot.keyword();
+        currentPage = snapshot.page();
+        songList.setValue(new ArrayList<>(snapshot.songs()));
+        hasMoreData.setValue(isSearchMode && snapshot.hasMoreData());
+    }
+
+    public boolean isSessionRestored() {
+        return sessionRestored;
+    }
+
+    public void markSessionRestored() {
+        sessionRestored = true;
+    }
+
+    @Override
+    protected void onCleared() {
+        onStateChangedListener = null;
+    }
+
     public record ProgressInfo(int current, int total, String message) {
     }
 }
\ No newline at end of file
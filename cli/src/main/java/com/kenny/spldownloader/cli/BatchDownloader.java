@@ -0,0 +1,357 @@
+// BatchDownloader.java
+package com.kenny.spldownloader.cli;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.converter.LibraryReconverter;
+import com.kenny.spldownloader.export.LyricArchiveWriter;
+import com.kenny.spldownloader.export.LyricExporter;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.network.ApiClient;
+import com.kenny.spldownloader.platform.ConsoleLogSink;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.service.BulkInputResolver;
+import com.kenny.spldownloader.service.LyricService;
+import com.kenny.spldownloader.service.ShareLinkResolver;
+import com.kenny.spldownloader.service.UrlParser;
+import com.kenny.spldownloader.storage.PlaylistSnapshot;
+import com.kenny.spldownloader.storage.PlaylistSnapshotStore;
+import com.kenny.spldownloader.storage.RawLyricCache;
+import com.kenny.spldownloader.trace.Tracer;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 命令行批量下载：解析歌单链接或关键词文件，按指定并发数把歌词下载到本地目录。
+ */
+public class BatchDownloader {
+    private static final String TAG = "BatchDownloader";
+    // 重复歌词报告最多列出的组数和每组路径数
+    private static final int MAX_DUPLICATE_GROUPS = 20;
+    private static final int MAX_DUPLICATE_PATHS = 5;
+    // 歌单快照目录，位于输出目录下
+    private static final String SNAPSHOT_DIR = ".playlists";
+    // 分享短链的解析缓存，位于输出目录下
+    private static final String SHARE_LINK_CACHE = ".share-links.bin";
+
+    private final CliOptions options;
+    private final UrlParser urlParser;
+    private final LyricService lyricService;
+    private final PlaylistSnapshotStore snapshotStore;
+    // --sync 时本次解析过的歌单，下载结束后据此更新快照
+    private final List<PlaylistSync> playlistSyncs = new ArrayList<>();
+
+    private record PlaylistSync(String snapshotId, PlaylistSnapshot previous, List<SongInfo> current) {}
+
+    public BatchDownloader(CliOptions options) {
+        this.options = options;
+        this.urlParser = new UrlParser();
+        this.lyricService = new LyricService();
+        this.snapshotStore = new PlaylistSnapshotStore(options.outputDir().resolve(SNAPSHOT_DIR).toFile());
+        ShareLinkResolver.getInstance().setCacheFile(options.outputDir().resolve(SHARE_LINK_CACHE).toFile());
+    }
+
+    public static void main(String[] args) {
+        if (CliOptions.isHelpRequested(args)) {
+            System.out.println(CliOptions.USAGE);
+            return;
+        }
+
+        CliOptions options;
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(CliOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Log.setSink(new ConsoleLogSink());
+        Log.setMinLevel(options.verbose() ? Log.DEBUG : Log.WARN);
+        Tracer.setEnabled(options.traceFile() != null);
+        Tuning.apply(options.tuning());
+        if (!options.apiUrls().isEmpty()) {
+            ApiClient.getInstance().setBaseUrls(options.apiUrls());
+        }
+        System.exit(new BatchDownloader(options).run());
+    }
+
+    public int run() {
+        if (options.reconvert()) {
+            return reconvert();
+        }
+
+        List<SongInfo> songs;
+        try {
+            songs = collectSongs();
+        } catch (IOException e) {
+            System.err.println("读取关键词文件失败: " + e.getMessage());
+            return 2;
+        }
+
+        if (songs.isEmpty() && !playlistSyncs.isEmpty()) {
+            saveSnapshots(songs);
+            System.out.println("歌单没有新增或变化的歌曲，无需下载");
+            return 0;
+        }
+        if (songs.isEmpty()) {
+            System.err.println("没有可下载的歌曲");
+            return 1;
+        }
+
+        Path destination = options.zipFile() != null ? options.zipFile() : options.outputDir();
+        System.out.println("开始下载 " + songs.size() + " 首歌曲，并发数: " + options.concurrency() +
+                "，输出到: " + destination.toAbsolutePath());
+
+        long startTime = System.nanoTime();
+        int failed;
+        if (options.zipFile() != null) {
+            try {
+                failed = downloadToArchive(songs);
+            } catch (IOException e) {
+                System.err.println("写入压缩包失败: " + e.getMessage());
+                return 2;
+            }
+        } else {
+            LyricFileWriter writer = new LyricFileWriter(options.outputDir());
+            failed = downloadAll(songs, newSongDownloader(writer), null);
+            writer.saveIndex();
+            printStorageSummary(writer);
+            saveSnapshots(songs);
+        }
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000L;
+
+        System.out.println("下载完成: 成功 " + (songs.size() - failed) + " 首, 失败 " + failed +
+                " 首, 耗时 " + elapsedMs + "ms");
+        if (options.printMetrics()) {
+            System.out.println();
+            System.out.print(Metrics.dump());
+        }
+        if (options.traceFile() != null) {
+            exportTrace();
+        }
+        return failed == 0 ? 0 : 1;
+    }
+
+    private int reconvert() {
+        LyricFileWriter writer = new LyricFileWriter(options.outputDir());
+        RawLyricCache cache = writer.getRawCache();
+        System.out.println("从 " + cache.getDirectory().toAbsolutePath() + " 重新转换逐字歌词");
+
+        LibraryReconverter.Result result;
+        try {
+            result = new LibraryReconverter().reconvert(cache,
+                    (fileName, content) -> writer.write(fileName, content, LyricService.LyricType.WORD_BY_WORD));
+        } catch (IOException e) {
+            System.err.println("读取原始歌词缓存失败: " + e.getMessage());
+            return 2;
+        }
+        writer.saveIndex();
+
+        if (result.total() == 0) {
+            System.err.println("没有缓存的原始歌词，请先用 -t word 下载");
+            return 1;
+        }
+        System.out.println("重新转换完成: " + result);
+        printStorageSummary(writer);
+        if (options.printMetrics()) {
+            System.out.println();
+            System.out.print(Metrics.dump());
+        }
+        return result.failed() == 0 ? 0 : 1;
+    }
+
+    private static void printStorageSummary(LyricFileWriter writer) {
+        if (writer.getSkippedCount() > 0) {
+            System.out.println("内容未变化，跳过写入 " + writer.getSkippedCount() + " 个文件");
+        }
+        List<List<String>> duplicates = writer.getContentIndex().findDuplicates();
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        System.out.println("发现 " + duplicates.size() + " 组内容完全相同的歌词:");
+        for (List<String> group : duplicates.subList(0, Math.min(duplicates.size(), MAX_DUPLICATE_GROUPS))) {
+            if (group.size() > MAX_DUPLICATE_PATHS) {
+                System.out.println("  " + String.join(" = ", group.subList(0, MAX_DUPLICATE_PATHS)) +
+                        " 等 " + group.size() + " 个");
+            } else {
+                System.out.println("  " + String.join(" = ", group));
+            }
+        }
+    }
+
+    private void exportTrace() {
+        try (Writer writer = Files.newBufferedWriter(options.traceFile(), StandardCharsets.UTF_8)) {
+            Tracer.exportChromeTrace(writer);
+            System.out.println("追踪已导出: " + options.traceFile().toAbsolutePath() + " (" + Tracer.size() + " 个区间)");
+        } catch (IOException e) {
+            System.err.println("导出追踪失败: " + e.getMessage());
+        }
+    }
+
+    private List<SongInfo> collectSongs() throws IOException {
+        // 按 MID 去重，保持输入顺序
+        Map<String, SongInfo> songs = new LinkedHashMap<>();
+
+        for (String url : options.urls()) {
+            try {
+                List<SongInfo> parsed = urlParser.parseUrl(url);
+                String playlistId = options.sync() ? UrlParser.playlistIdOf(url) : null;
+                if (playlistId != null) {
+                    parsed = playlistDelta(playlistId, parsed);
+                }
+                for (SongInfo song : parsed) {
+                    songs.putIfAbsent(song.getMid(), song);
+                }
+            } catch (Exception e) {
+                System.err.println("解析链接失败: " + url + " - " + e.getMessage());
+            }
+        }
+
+        if (options.keywordFile() != null) {
+            // 每行可以是关键词、歌曲 MID 或链接，并发解析
+            String text = Files.readString(options.keywordFile(), StandardCharsets.UTF_8);
+            BulkInputResolver.Result result = new BulkInputResolver(urlParser, AppConfig.BULK_RESOLVE_CONCURRENCY)
+                    .resolve(text);
+            for (BulkInputResolver.LineResult failure : result.failures()) {
+                System.err.println("解析失败: " + failure);
+            }
+            for (SongInfo song : result.songs()) {
+                songs.putIfAbsent(song.getMid(), song);
+            }
+        }
+
+        return new ArrayList<>(songs.values());
+    }
+
+    // 与上次同步的快照比较，只返回需要下载的歌曲
+    private List<SongInfo> playlistDelta(String playlistId, List<SongInfo> current) {
+        String snapshotId = snapshotId(playlistId);
+        PlaylistSnapshot previous = snapshotStore.load(snapshotId);
+        PlaylistSnapshot.Diff diff = PlaylistSnapshot.diff(previous, current);
+        playlistSyncs.add(new PlaylistSync(snapshotId, previous, current));
+
+        System.out.println("歌单 " + playlistId + (previous == null ? " 首次同步: " : " 同步: ") + diff);
+        if (options.showRemoved()) {
+            for (SongInfo song : diff.removed()) {
+                System.out.println("  已移除: " + song + " (" + song.getMid() + ")");
+            }
+        }
+        return diff.toDownload();
+    }
+
+    // 快照按歌词类型和导出格式分开保存：换了 -t 或增加 -f 后，旧快照里的歌并没有生成新的文件，应该全部下载
+    private String snapshotId(String playlistId) {
+        StringBuilder id = new StringBuilder(playlistId).append('-').append(options.lyricType().name());
+        options.exporters().stream()
+                .map(LyricExporter::getName)
+                .sorted()
+                .forEach(name -> id.append('-').append(name));
+        return id.toString();
+    }
+
+    // 下载失败的歌不记入快照，下次同步会重新下载
+    private void saveSnapshots(List<SongInfo> downloaded) {
+        Set<String> failedMids = new HashSet<>();
+        for (SongInfo song : downloaded) {
+            if (song.getDownloadStatus() != SongInfo.DownloadStatus.SUCCESS) {
+                failedMids.add(song.getMid());
+            }
+        }
+        for (PlaylistSync sync : playlistSyncs) {
+            try {
+                snapshotStore.save(PlaylistSnapshot.afterSync(sync.snapshotId(), sync.previous(),
+                        sync.current(), failedMids));
+            } catch (IOException e) {
+                System.err.println("保存歌单快照失败: " + sync.snapshotId() + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private SongDownloader newSongDownloader(LyricOutput output) {
+        return new SongDownloader(lyricService, output, options.lyricType(),
+                Tuning.current().maxRetryCount(), Tuning.current().retryDelayMs(), options.exporters());
+    }
+
+    // 所有歌词直接流式写入同一个压缩包，不落地单独的文件
+    private int downloadToArchive(List<SongInfo> songs) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(options.zipFile()));
+             LyricArchiveWriter archive = new LyricArchiveWriter(out)) {
+            LyricOutput output = new LyricOutput() {
+                @Override
+                public void save(SongInfo song, String content, LyricService.LyricType lyricType)
+                        throws IOException {
+                    archive.add(song, content, lyricType);
+                }
+
+                @Override
+                public void saveExport(SongInfo song, LyricExporter exporter, String content)
+                        throws IOException {
+                    archive.addExport(song, exporter, content);
+                }
+            };
+            return downloadAll(songs, newSongDownloader(output), archive);
+        }
+    }
+
+    private int downloadAll(List<SongInfo> songs, SongDownloader songDownloader, LyricArchiveWriter archive) {
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        AtomicInteger completed = new AtomicInteger(0);
+        AtomicInteger failed = new AtomicInteger(0);
+        // 下载线程交出原始歌词后就去下载下一首，转换和保存完成时再报告结果
+        List<CompletableFuture<Void>> results = Collections.synchronizedList(new ArrayList<>());
+
+        for (SongInfo song : songs) {
+            long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                Tracer.recordAsync("queued", song.getMid(), submittedAt, System.nanoTime());
+                results.add(songDownloader.downloadAsync(song).thenAccept(error -> {
+                    int index = completed.incrementAndGet();
+                    song.setDownloadStatus(error == null ?
+                            SongInfo.DownloadStatus.SUCCESS : SongInfo.DownloadStatus.FAILED);
+                    if (error == null) {
+                        System.out.println("[" + index + "/" + songs.size() + "] 成功 " + song);
+                    } else {
+                        failed.incrementAndGet();
+                        if (archive != null) {
+                            archive.addFailure(song, error);
+                        }
+                        System.out.println("[" + index + "/" + songs.size() + "] 失败 " + song + " - " + error);
+                    }
+                }));
+            });
+        }
+
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                Log.d(TAG, "等待下载任务完成: " + completed.get() + "/" + songs.size());
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        return failed.get() + (songs.size() - completed.get());
+    }
+}
@@ -0,0 +1,217 @@
+// CliOptions.java
+package com.kenny.spldownloader.cli;
+
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.export.LyricExporter;
+import com.kenny.spldownloader.export.LyricExporters;
+import com.kenny.spldownloader.service.LyricService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public record CliOptions(List<String> urls, Path keywordFile, Path outputDir,
+                         LyricService.LyricType lyricType, int concurrency,
+                         List<String> apiUrls, boolean verbose, boolean printMetrics, Path traceFile,
+                         Path zipFile, boolean reconvert, List<LyricExporter> exporters,
+                         boolean sync, boolean showRemoved, TuningProfile tuning) {
+
+    public static final String USAGE = String.join("\n",
+            "用法: spl-downloader [选项] [歌单、专辑、歌手或歌曲链接，或 album:MID、singer:MID ...]",
+            "",
+            "选项:",
+            "  -k, --keywords FILE      批量输入文件，每行一个关键词（取搜索结果第一首）、歌曲MID或链接",
+            "  -o, --out DIR            输出目录，默认 ./lyrics",
+            "  -z, --zip FILE           把所有歌词打包写入一个 ZIP（含 manifest.json），不再写入输出目录",
+            "  -t, --type normal|word   歌词类型：普通歌词或逐字歌词，默认 normal",
+            "  -f, --format LIST        额外导出的格式，逗号分隔：elrc（增强 LRC）、srt、ttml",
+            "  -c, --concurrency N      同时下载的歌曲数，默认取性能预设的下载线程数（balanced 为 3）",
+            "  -a, --api URL            使用指定的API节点，可重复指定，按顺序作为备用节点",
+            "  -m, --metrics            结束时输出各阶段耗时统计",
+            "  -p, --profile NAME       性能预设：metered、balanced（默认）、aggressive，决定超时、重试和默认并发数",
+            "      --tuning FILE        用 properties 文件覆盖性能预设中的单项，如 read.timeout.ms=20000",
+            "      --reconvert          不联网，用输出目录里缓存的原始 YRC 重新生成 SPL 目录下的逐字歌词",
+            "      --sync               歌单链接只下载与上次同步相比新增或信息变化的歌曲，快照保存在输出目录",
+            "      --show-removed       同步时列出歌单中已移除的歌曲",
+            "      --trace FILE         把每首歌的追踪区间导出为 Chrome trace JSON",
+            "  -v, --verbose            输出调试日志",
+            "  -h, --help               显示帮助");
+
+    public static boolean isHelpRequested(String[] args) {
+        for (String arg : args) {
+            if ("-h".equals(arg) || "--help".equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static CliOptions parse(String[] args) {
+        List<String> urls = new ArrayList<>();
+        Path keywordFile = null;
+        Path outputDir = Paths.get("lyrics");
+        LyricService.LyricType lyricType = LyricService.LyricType.NORMAL;
+        int concurrency = 0;
+        List<String> apiUrls = new ArrayList<>();
+        boolean verbose = false;
+        boolean printMetrics = false;
+        Path traceFile = null;
+        Path zipFile = null;
+        boolean reconvert = false;
+        List<LyricExporter> exporters = new ArrayList<>();
+        boolean sync = false;
+        boolean showRemoved = false;
+        TuningProfile profile = TuningProfile.BALANCED;
+        Path tuningFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-k":
+                case "--keywords":
+                    keywordFile = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "-o":
+                case "--out":
+                    outputDir = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "-z":
+                case "--zip":
+                    zipFile = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "-t":
+                case "--type":
+                    lyricType = parseLyricType(requireValue(args, ++i, arg));
+                    break;
+                case "-f":
+                case "--format":
+                    addExporters(exporters, requireValue(args, ++i, arg));
+                    break;
+                case "-c":
+                case "--concurrency":
+                    concurrency = parsePositiveInt(requireValue(args, ++i, arg), arg);
+                    break;
+                case "-a":
+                case "--api":
+                    apiUrls.add(requireValue(args, ++i, arg));
+                    break;
+                case "-p":
+                case "--profile":
+                    profile = parseProfile(requireValue(args, ++i, arg));
+                    break;
+                case "--tuning":
+                    tuningFile = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "-m":
+                case "--metrics":
+                    printMetrics = true;
+                    break;
+                case "--trace":
+                    traceFile = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "--reconvert":
+                    reconvert = true;
+                    break;
+                case "--sync":
+                    sync = true;
+                    break;
+                case "--show-removed":
+                    showRemoved = true;
+                    break;
+                case "-v":
+                case "--verbose":
+                    verbose = true;
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("未知选项: " + arg);
+                    }
+                    urls.add(arg);
+                    break;
+            }
+        }
+
+        if (urls.isEmpty() && keywordFile == null && !reconvert) {
+            throw new IllegalArgumentException("请至少提供一个链接或关键词文件");
+        }
+        if (sync && zipFile != null) {
+            throw new IllegalArgumentException("--sync 只能用于输出目录，不能和 --zip 一起使用");
+        }
+
+        TuningProfile tuning = loadTuning(profile, tuningFile);
+        if (concurrency == 0) {
+            concurrency = tuning.downloadThreads();
+        }
+
+        return new CliOptions(urls, keywordFile, outputDir, lyricType, concurrency,
+                apiUrls, verbose, printMetrics, traceFile,
+                zipFile, reconvert, exporters,
+                sync, showRemoved, tuning);
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("选项缺少参数: " + option);
+        }
+        return args[index];
+    }
+
+    private static int parsePositiveInt(String value, String option) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("选项 " + option + " 需要正整数: " + value);
+    }
+
+    private static void addExporters(List<LyricExporter> exporters, String value) {
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            LyricExporter exporter = LyricExporters.forName(trimmed);
+            if (exporter == null) {
+                throw new IllegalArgumentException("不支持的导出格式: " + trimmed +
+                        "，可选: " + String.join(", ", LyricExporters.names()));
+            }
+            if (!exporters.contains(exporter)) {
+                exporters.add(exporter);
+            }
+        }
+    }
+
+    /**
+     * 在性能预设上叠加 --tuning 文件中的单项，tuningFile 为 null 时直接使用预设。
+     */
+    public static TuningProfile loadTuning(TuningProfile profile, Path tuningFile) {
+        if (tuningFile != null && !Files.isRegularFile(tuningFile)) {
+            throw new IllegalArgumentException("找不到性能配置文件: " + tuningFile);
+        }
+        return Tuning.load(tuningFile != null ? tuningFile.toFile() : null, profile);
+    }
+
+    public static TuningProfile parseProfile(String value) {
+        TuningProfile profile = TuningProfile.preset(value);
+        if (profile == null) {
+            throw new IllegalArgumentException("不支持的性能预设: " + value + "，可选: metered, balanced, aggressive");
+        }
+        return profile;
+    }
+
+    private static LyricService.LyricType parseLyricType(String value) {
+        switch (value) {
+            case "normal":
+                return LyricService.LyricType.NORMAL;
+            case "word":
+                return LyricService.LyricType.WORD_BY_WORD;
+            default:
+                throw new IllegalArgumentException("不支持的歌词类型: " + value);
+        }
+    }
+}
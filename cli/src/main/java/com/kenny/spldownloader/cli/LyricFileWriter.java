@@ -0,0 +1,111 @@
+// LyricFileWriter.java
+package com.kenny.spldownloader.cli;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.export.LyricArchiveWriter;
+import com.kenny.spldownloader.export.LyricExporter;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.metrics.Stage;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.service.LyricService;
+import com.kenny.spldownloader.storage.ContentHashIndex;
+import com.kenny.spldownloader.storage.RawLyricCache;
+import com.kenny.spldownloader.util.FileNames;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按照 App 相同的目录结构（LRC / SPL）和命名规则把歌词写入本地目录，导出格式写入各自的目录（如 SRT）。
+ * 输出目录下的内容哈希索引用于跳过正文没有变化的重复写入，逐字歌词的原始 YRC 缓存在 .yrc-cache 目录。
+ */
+public class LyricFileWriter implements LyricOutput {
+    private static final String CONTENT_INDEX_FILE = ".lyric-hashes.bin";
+    private static final String RAW_CACHE_DIR = ".yrc-cache";
+
+    private final Path outputDir;
+    private final ContentHashIndex contentIndex;
+    private final RawLyricCache rawCache;
+    private final AtomicInteger skippedCount = new AtomicInteger();
+
+    public LyricFileWriter(Path outputDir) {
+        this.outputDir = outputDir;
+        this.contentIndex = new ContentHashIndex(outputDir.resolve(CONTENT_INDEX_FILE).toFile());
+        this.rawCache = new RawLyricCache(outputDir.resolve(RAW_CACHE_DIR));
+    }
+
+    @Override
+    public void save(SongInfo song, String content, LyricService.LyricType lyricType) throws IOException {
+        write(song, content, lyricType);
+    }
+
+    public Path write(SongInfo song, String content, LyricService.LyricType lyricType) throws IOException {
+        return write(song.getFileName(), content, lyricType);
+    }
+
+    public Path write(String fileName, String content, LyricService.LyricType lyricType) throws IOException {
+        String folder = lyricType == LyricService.LyricType.NORMAL ?
+                AppConfig.FOLDER_NORMAL_LRC : AppConfig.FOLDER_WORD_BY_WORD;
+        Path targetDir = outputDir.resolve(folder);
+        Files.createDirectories(targetDir);
+
+        String safeFileName = FileNames.ensureLrcExtension(FileNames.makeSafeFileName(fileName));
+        return writeIfChanged(targetDir.resolve(safeFileName), folder + "/" + safeFileName, content);
+    }
+
+    @Override
+    public void saveRawLyric(SongInfo song, String rawLyric) {
+        rawCache.put(song.getFileName(), rawLyric);
+    }
+
+    @Override
+    public void saveExport(SongInfo song, LyricExporter exporter, String content) throws IOException {
+        Path targetDir = outputDir.resolve(exporter.getFolder());
+        Files.createDirectories(targetDir);
+
+        String safeFileName = LyricArchiveWriter.exportBaseName(song) + exporter.getExtension();
+        writeIfChanged(targetDir.resolve(safeFileName), exporter.getFolder() + "/" + safeFileName, content);
+    }
+
+    private Path writeIfChanged(Path file, String indexKey, String content) throws IOException {
+        long hash = ContentHashIndex.hash(content);
+        if (contentIndex.isUnchanged(indexKey, hash) && Files.exists(file)) {
+            skippedCount.incrementAndGet();
+            return file;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Metrics.recordError(Stage.FILE_WRITE);
+            throw e;
+        }
+        Metrics.recordSince(Stage.FILE_WRITE, startTime);
+        contentIndex.put(indexKey, hash);
+        return file;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public ContentHashIndex getContentIndex() {
+        return contentIndex;
+    }
+
+    public RawLyricCache getRawCache() {
+        return rawCache;
+    }
+
+    /**
+     * 把内容索引写回输出目录，下载结束时调用。
+     */
+    public void saveIndex() {
+        if (Files.isDirectory(outputDir)) {
+            contentIndex.save();
+        }
+    }
+}
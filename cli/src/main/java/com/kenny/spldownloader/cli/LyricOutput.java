@@ -0,0 +1,28 @@
+// LyricOutput.java
+package com.kenny.spldownloader.cli;
+
+import com.kenny.spldownloader.export.LyricExporter;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.service.LyricService;
+import java.io.IOException;
+
+/**
+ * 下载好的歌词的去处：本地目录或压缩包。
+ */
+@FunctionalInterface
+public interface LyricOutput {
+    void save(SongInfo song, String content, LyricService.LyricType lyricType) throws IOException;
+
+    /**
+     * 保存逐字歌词转换前的原始 YRC，供以后离线重新转换（--reconvert）。不支持的输出直接忽略。
+     */
+    default void saveRawLyric(SongInfo song, String rawLyric) {
+    }
+
+    /**
+     * 保存一首歌的某种导出格式（--format）。
+     */
+    default void saveExport(SongInfo song, LyricExporter exporter, String content) throws IOException {
+        throw new IOException("当前输出不支持导出格式: " + exporter.getName());
+    }
+}
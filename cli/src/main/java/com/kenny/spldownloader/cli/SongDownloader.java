@@ -0,0 +1,172 @@
+// SongDownloader.java
+package com.kenny.spldownloader.cli;
+
+import com.kenny.spldownloader.converter.ConversionPool;
+import com.kenny.spldownloader.converter.LrcConverter;
+import com.kenny.spldownloader.export.LyricExporter;
+import com.kenny.spldownloader.export.LyricExporters;
+import com.kenny.spldownloader.lyric.ParsedLyric;
+import com.kenny.spldownloader.lyric.YrcParser;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.service.LyricService;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 单首歌曲的完整处理：下载（带重试）、在转换池中转换并写入文件。
+ * 下载线程拿到原始歌词后就把转换和保存交给转换池，自己去下载下一首；等待转换的歌曲数单独限制，
+ * 转换跟不上时下载线程在交出前等待。指定了导出格式时，原始歌词只解析一次，
+ * 逐字歌词和各个导出格式都由同一份解析结果生成。
+ */
+public class SongDownloader {
+    private static final String TAG = "SongDownloader";
+
+    private final LyricService lyricService;
+    private final LyricOutput output;
+    private final LyricService.LyricType lyricType;
+    private final int maxRetries;
+    private final long retryDelayMs;
+    private final List<LyricExporter> exporters;
+    private final YrcParser parser = new YrcParser();
+    private final LrcConverter converter = new LrcConverter();
+    private final Semaphore pendingConversions = new Semaphore(ConversionPool.getInstance().getPendingLimit());
+
+    public SongDownloader(LyricService lyricService, LyricOutput output,
+                          LyricService.LyricType lyricType, int maxRetries, long retryDelayMs) {
+        this(lyricService, output, lyricType, maxRetries, retryDelayMs, Collections.emptyList());
+    }
+
+    public SongDownloader(LyricService lyricService, LyricOutput output,
+                          LyricService.LyricType lyricType, int maxRetries, long retryDelayMs,
+                          List<LyricExporter> exporters) {
+        this.exporters = exporters;
+        this.lyricService = lyricService;
+        this.output = output;
+        this.lyricType = lyricType;
+        this.maxRetries = maxRetries;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    // 返回 null 表示成功，否则返回错误信息
+    public String download(SongInfo song) {
+        return downloadAsync(song).join();
+    }
+
+    /**
+     * 在调用线程上下载，转换和保存在转换池里继续进行。返回的 Future 总是正常完成，
+     * 结果为 null 表示成功，否则是错误信息。
+     */
+    public CompletableFuture<String> downloadAsync(SongInfo song) {
+        String rawLyric;
+        try (Span span = Tracer.beginTrace("song", song.getMid())) {
+            try {
+                rawLyric = fetch(song);
+                try (Span wait = Tracer.begin("wait convert")) {
+                    pendingConversions.acquire();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                span.detail("下载被中断");
+                return CompletableFuture.completedFuture("下载被中断");
+            } catch (Exception e) {
+                span.detail(e.getMessage());
+                return CompletableFuture.completedFuture(e.getMessage());
+            }
+        }
+
+        // 转换在按 CPU 核数确定大小的转换池中进行，转换完在同一线程上保存
+        CompletableFuture<String> saved;
+        try {
+            saved = convertAsync(song, rawLyric)
+                    .handle((converted, error) -> error != null ?
+                            "转换失败: " + (error.getCause() != null ? error.getCause().getMessage() : error.getMessage()) :
+                            save(song, rawLyric, converted))
+                    .exceptionally(e -> "保存失败: " + e.getMessage());
+        } catch (RuntimeException e) {
+            saved = CompletableFuture.completedFuture("转换失败: " + e.getMessage());
+        }
+        return saved.whenComplete((error, ignored) -> pendingConversions.release());
+    }
+
+    // 带重试地下载原始歌词，全部失败时抛出最后一次的异常
+    private String fetch(SongInfo song) throws Exception {
+        Callable<String> task = lyricService.createFetchTask(song, lyricType);
+        String rawLyric = null;
+        Exception lastException = null;
+
+        for (int attempt = 1; attempt <= maxRetries && rawLyric == null; attempt++) {
+            try (Span span = Tracer.begin("attempt " + attempt)) {
+                try {
+                    rawLyric = task.call();
+                } catch (Exception e) {
+                    span.detail(e.getMessage());
+                    throw e;
+                }
+            } catch (Exception e) {
+                lastException = e;
+                Log.w(TAG, "下载失败，第 " + attempt + " 次重试 - " + song + ": " + e.getMessage());
+                if (attempt < maxRetries) {
+                    try (Span span = Tracer.begin("backoff")) {
+                        Thread.sleep(retryDelayMs);
+                    }
+                }
+            }
+        }
+
+        if (rawLyric == null) {
+            throw lastException != null ? lastException : new Exception("未知错误");
+        }
+        return rawLyric;
+    }
+
+    // 没有导出格式时照常转换；有导出格式时在同一个转换任务里解析一次，逐字歌词和导出格式都从解析结果生成
+    private CompletableFuture<Converted> convertAsync(SongInfo song, String rawLyric) {
+        if (exporters.isEmpty()) {
+            return lyricService.convertAsync(rawLyric, lyricType, song.getMid())
+                    .thenApply(lyricContent -> new Converted(lyricContent, Collections.emptyMap()));
+        }
+        return ConversionPool.getInstance().submit(() -> {
+            ParsedLyric parsed = parser.parse(rawLyric);
+            String lyricContent = lyricType == LyricService.LyricType.WORD_BY_WORD ?
+                    converter.convert(parsed) : rawLyric;
+            try (Span span = Tracer.begin("export")) {
+                return new Converted(lyricContent, LyricExporters.exportAll(parsed, exporters));
+            }
+        }, song.getMid());
+    }
+
+    private String save(SongInfo song, String rawLyric, Converted converted) {
+        try (Span span = Tracer.beginTrace("save", song.getMid())) {
+            if (lyricType == LyricService.LyricType.WORD_BY_WORD) {
+                output.saveRawLyric(song, rawLyric);
+            }
+            output.save(song, converted.lyricContent(), lyricType);
+        } catch (IOException | InvalidPathException e) {
+            return "保存失败: " + e.getMessage();
+        }
+
+        return converted.exports().isEmpty() ? null : saveExports(song, converted.exports());
+    }
+
+    private String saveExports(SongInfo song, Map<LyricExporter, String> results) {
+        try (Span span = Tracer.begin("save exports")) {
+            for (Map.Entry<LyricExporter, String> result : results.entrySet()) {
+                output.saveExport(song, result.getKey(), result.getValue());
+            }
+            return null;
+        } catch (IOException | InvalidPathException e) {
+            return "保存导出格式失败: " + e.getMessage();
+        }
+    }
+
+    private record Converted(String lyricContent, Map<LyricExporter, String> exports) {}
+}
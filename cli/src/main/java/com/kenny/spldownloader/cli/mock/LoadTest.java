@@ -0,0 +1,263 @@
+// LoadTest.java
+package com.kenny.spldownloader.cli.mock;
+
+import com.kenny.spldownloader.cli.CliOptions;
+import com.kenny.spldownloader.cli.LyricFileWriter;
+import com.kenny.spldownloader.cli.SongDownloader;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.network.ApiClient;
+import com.kenny.spldownloader.platform.ConsoleLogSink;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.service.LyricService;
+import com.kenny.spldownloader.service.UrlParser;
+import com.kenny.spldownloader.trace.Tracer;
+import java.lang.management.ManagementFactory;
+import java.io.Writer;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 端到端压测：启动本地模拟API，让一个大歌单走完真实的
+ * UrlParser -> LyricService -> LrcConverter -> 写文件 流程，
+ * 报告吞吐量、单曲延迟分位数和堆内存峰值。
+ */
+public class LoadTest {
+    private static final String PLAYLIST_URL = "https://i.y.qq.com/n2/m/share/details/taoge.html?id=9000000001";
+
+    public static final String USAGE = String.join("\n",
+            "用法: LoadTest [选项]",
+            "",
+            "压测选项:",
+            "  --concurrency N         同时处理的歌曲数，默认 8",
+            "  --type normal|word      歌词类型，默认 word",
+            "  --out DIR               输出目录，默认创建临时目录",
+            "  -p, --profile NAME      性能预设：metered、balanced（默认）、aggressive，决定超时和重试",
+            "  --tuning FILE           用 properties 文件覆盖性能预设中的单项，如 retry.max=5",
+            "  --retry-delay MS        重试间隔，默认取性能预设",
+            "  --trace FILE            把下载阶段的追踪区间导出为 Chrome trace JSON",
+            "  -v, --verbose           输出调试日志",
+            "",
+            MockServerConfig.USAGE);
+
+    private static String requireValue(List<String> args, int index, String option) {
+        if (index >= args.size()) {
+            throw new IllegalArgumentException("选项缺少参数: " + option);
+        }
+        return args.get(index);
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> remaining = new ArrayList<>();
+        MockServerConfig config;
+
+        int concurrency = 8;
+        LyricService.LyricType lyricType = LyricService.LyricType.WORD_BY_WORD;
+        Path outputDir = null;
+        TuningProfile profile = TuningProfile.BALANCED;
+        Path tuningFile = null;
+        long retryDelayMs = -1;
+        boolean verbose = false;
+        Path traceFile = null;
+
+        try {
+            config = MockServerConfig.parse(args, remaining);
+            for (int i = 0; i < remaining.size(); i++) {
+                String arg = remaining.get(i);
+                switch (arg) {
+                    case "--concurrency":
+                        concurrency = Integer.parseInt(requireValue(remaining, ++i, arg));
+                        break;
+                    case "--type":
+                        lyricType = "normal".equals(requireValue(remaining, ++i, arg)) ?
+                                LyricService.LyricType.NORMAL : LyricService.LyricType.WORD_BY_WORD;
+                        break;
+                    case "--out":
+                        outputDir = Paths.get(requireValue(remaining, ++i, arg));
+                        break;
+                    case "-p":
+                    case "--profile":
+                        profile = CliOptions.parseProfile(requireValue(remaining, ++i, arg));
+                        break;
+                    case "--tuning":
+                        tuningFile = Paths.get(requireValue(remaining, ++i, arg));
+                        break;
+                    case "--retry-delay":
+                        retryDelayMs = Long.parseLong(requireValue(remaining, ++i, arg));
+                        break;
+                    case "--trace":
+                        traceFile = Paths.get(requireValue(remaining, ++i, arg));
+                        break;
+                    case "-v":
+                    case "--verbose":
+                        verbose = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知选项: " + arg);
+                }
+            }
+            Tuning.apply(CliOptions.loadTuning(profile, tuningFile));
+        } catch (IllegalArgumentException e) {
+            // 数字格式错误（NumberFormatException）也在这里一并报告
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Log.setSink(new ConsoleLogSink());
+        Log.setMinLevel(verbose ? Log.DEBUG : Log.ERROR);
+        Tracer.setEnabled(traceFile != null);
+        if (outputDir == null) {
+            outputDir = Files.createTempDirectory("spl-loadtest");
+        }
+
+        if (retryDelayMs < 0) {
+            retryDelayMs = Tuning.current().retryDelayMs();
+        }
+
+        MockApiServer server = new MockApiServer(config);
+        server.start();
+        ApiClient.getInstance().setBaseUrls(Collections.singletonList(server.getBaseUrl()));
+
+        HeapSampler heapSampler = new HeapSampler();
+        heapSampler.start();
+        try {
+            new LoadTest().run(server, outputDir, concurrency, lyricType, retryDelayMs, heapSampler);
+            if (traceFile != null) {
+                try (Writer writer = Files.newBufferedWriter(traceFile, StandardCharsets.UTF_8)) {
+                    Tracer.exportChromeTrace(writer);
+                }
+                System.out.println("追踪已导出: " + traceFile.toAbsolutePath() + " (" + Tracer.size() + " 个区间)");
+            }
+        } finally {
+            heapSampler.stop();
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    private void run(MockApiServer server, Path outputDir, int concurrency, LyricService.LyricType lyricType,
+                     long retryDelayMs, HeapSampler heapSampler) throws Exception {
+        System.out.println("模拟API: " + server.getBaseUrl() + ", 输出目录: " + outputDir);
+
+        long parseStart = System.nanoTime();
+        List<SongInfo> songs = new UrlParser().parseUrl(PLAYLIST_URL);
+        long parseMs = (System.nanoTime() - parseStart) / 1_000_000L;
+        System.out.println("歌单解析完成: " + songs.size() + " 首, 耗时 " + parseMs + "ms");
+
+        SongDownloader downloader = new SongDownloader(new LyricService(), new LyricFileWriter(outputDir),
+                lyricType, Tuning.current().maxRetryCount(), retryDelayMs);
+
+        long[] latencies = new long[songs.size()];
+        AtomicInteger failed = new AtomicInteger(0);
+        AtomicInteger completed = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        // 只统计下载阶段，歌单解析的请求不计入
+        Metrics.reset();
+        Tracer.clear();
+        long downloadStart = System.nanoTime();
+        for (int i = 0; i < songs.size(); i++) {
+            final int index = i;
+            long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                Tracer.recordAsync("queued", songs.get(index).getMid(), submittedAt, start);
+                if (downloader.download(songs.get(index)) != null) {
+                    failed.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - start;
+                int done = completed.incrementAndGet();
+                if (done % 500 == 0) {
+                    System.out.println("进度: " + done + "/" + songs.size());
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+            executor.shutdownNow();
+        }
+        long downloadMs = Math.max(1, (System.nanoTime() - downloadStart) / 1_000_000L);
+
+        Arrays.sort(latencies);
+        System.out.println();
+        System.out.println("===== 压测结果 =====");
+        System.out.println(String.format(Locale.US, "歌曲: %d, 成功: %d, 失败: %d, 并发: %d",
+                songs.size(), songs.size() - failed.get(), failed.get(), concurrency));
+        System.out.println(String.format(Locale.US, "下载耗时: %dms, 吞吐量: %.1f 首/秒",
+                downloadMs, songs.size() * 1000.0 / downloadMs));
+        System.out.println(String.format(Locale.US, "单曲延迟: p50 %.1fms, p99 %.1fms, 最大 %.1fms",
+                percentileMs(latencies, 0.50), percentileMs(latencies, 0.99), percentileMs(latencies, 1.0)));
+        System.out.println(String.format(Locale.US, "堆内存峰值: %.1f MB",
+                heapSampler.getPeakBytes() / (1024.0 * 1024.0)));
+        System.out.println("服务器统计: " + server.getStats());
+        System.out.println();
+        System.out.println("===== 分阶段统计 =====");
+        System.out.print(Metrics.dump());
+    }
+
+    private static double percentileMs(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        index = Math.max(0, Math.min(sortedNanos.length - 1, index));
+        return sortedNanos[index] / 1_000_000.0;
+    }
+
+    // 定时采样已用堆内存，记录峰值
+    private static final class HeapSampler implements Runnable {
+        private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peakBytes = new AtomicLong();
+        private volatile boolean running = true;
+        private Thread thread;
+
+        void start() {
+            thread = new Thread(this, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            sample();
+        }
+
+        long getPeakBytes() {
+            sample();
+            return peakBytes.get();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void sample() {
+            peakBytes.accumulateAndGet(memoryBean.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+// MockApiServer.java
+package com.kenny.spldownloader.cli.mock;
+
+import com.kenny.spldownloader.platform.ConsoleLogSink;
+import com.kenny.spldownloader.platform.Log;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 落月API的本地替身：回放录制的 /search/song、/dissinfo、/lyric 和歌曲信息响应，
+ * 可以配置延迟、HTTP 500、业务码 503 和限流，用于压测而不打扰真实服务。
+ */
+public class MockApiServer {
+    private static final String TAG = "MockApiServer";
+
+    public static final String BASE_PATH = "/v2/music/tencent";
+    private static final int SEARCH_RESULT_LIMIT = 200;
+
+    private final MockServerConfig config;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final String lyricTemplate;
+    private final String songTemplate;
+    private final String searchTemplate;
+    private final String dissinfoTemplate;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong unavailableCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+
+    // 限流窗口：按秒计数
+    private long throttleWindowStart = 0;
+    private int throttleWindowCount = 0;
+
+    public MockApiServer(MockServerConfig config) throws IOException {
+        this.config = config;
+        this.lyricTemplate = readRecording("lyric.json");
+        this.songTemplate = readRecording("song.json");
+        this.searchTemplate = readRecording("search.json");
+        this.dissinfoTemplate = readRecording("dissinfo.json");
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.port()), 0);
+        this.executor = Executors.newFixedThreadPool(config.serverThreads());
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH, this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> remaining = new ArrayList<>();
+        MockServerConfig config;
+        try {
+            config = MockServerConfig.parse(args, remaining);
+        } catch (IllegalArgumentException e) {
+            // 数字格式错误（NumberFormatException）也在这里一并报告
+            System.err.println(e.getMessage());
+            System.err.println(MockServerConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (!remaining.isEmpty()) {
+            System.err.println("未知选项: " + remaining);
+            System.err.println(MockServerConfig.USAGE);
+            System.exit(2);
+        }
+
+        Log.setSink(new ConsoleLogSink());
+        Log.setMinLevel(Log.INFO);
+        MockApiServer server = new MockApiServer(config);
+        server.start();
+        System.out.println("模拟API已启动: " + server.getBaseUrl());
+        System.out.println("可通过 spl-downloader --api " + server.getBaseUrl() + " 使用");
+    }
+
+    public void start() {
+        server.start();
+        Log.i(TAG, "模拟API监听: " + getBaseUrl() + ", 配置: " + config);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    public String getStats() {
+        return String.format(Locale.US, "请求 %d 次, HTTP 500 %d 次, 业务码 503 %d 次, 限流 %d 次",
+                requestCount.get(), errorCount.get(), unavailableCount.get(), throttledCount.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestCount.incrementAndGet();
+
+            if (isThrottled()) {
+                throttledCount.incrementAndGet();
+                send(exchange, 429, "{\"code\":429,\"message\":\"请求过于频繁\"}");
+                return;
+            }
+
+            simulateLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < config.errorRate()) {
+                errorCount.incrementAndGet();
+                send(exchange, 500, "Internal Server Error");
+                return;
+            }
+            if (random.nextDouble() < config.unavailableRate()) {
+                unavailableCount.incrementAndGet();
+                send(exchange, 200, "{\"code\":503,\"message\":\"服务繁忙，请稍后再试\"}");
+                return;
+            }
+
+            String endpoint = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            switch (endpoint) {
+                case "/lyric":
+                    send(exchange, 200, lyricTemplate);
+                    break;
+                case "/search/song":
+                    send(exchange, 200, buildSearchResponse(query));
+                    break;
+                case "/dissinfo":
+                    send(exchange, 200, buildPlaylistResponse(query));
+                    break;
+                case "/album":
+                    send(exchange, 200, buildCollectionResponse(query, "专辑"));
+                    break;
+                case "/singer":
+                    send(exchange, 200, buildCollectionResponse(query, "歌手"));
+                    break;
+                case "":
+                case "/":
+                    send(exchange, 200, buildSongResponse(query));
+                    break;
+                default:
+                    send(exchange, 404, "{\"code\":404,\"message\":\"接口不存在\"}");
+                    break;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "处理请求失败: " + exchange.getRequestURI(), e);
+            send(exchange, 500, "Internal Server Error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private synchronized boolean isThrottled() {
+        if (config.maxRequestsPerSecond() <= 0) {
+            return false;
+        }
+        long now = System.nanoTime() / 1_000_000_000L;
+        if (now != throttleWindowStart) {
+            throttleWindowStart = now;
+            throttleWindowCount = 0;
+        }
+        return ++throttleWindowCount > config.maxRequestsPerSecond();
+    }
+
+    private void simulateLatency() {
+        int delay = config.latencyMs();
+        if (config.jitterMs() > 0) {
+            delay += ThreadLocalRandom.current().nextInt(config.jitterMs() + 1);
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private String buildSongResponse(Map<String, String> query) {
+        JSONObject response = new JSONObject(songTemplate);
+        String mid = query.get("mid");
+        if (mid != null) {
+            JSONObject data = response.getJSONObject("data");
+            data.put("mid", mid);
+            data.put("song", "模拟歌曲 " + mid);
+        }
+        return response.toString();
+    }
+
+    private String buildSearchResponse(Map<String, String> query) {
+        JSONObject response = new JSONObject(searchTemplate);
+        JSONObject itemTemplate = response.getJSONArray("data").getJSONObject(0);
+        int page = intParam(query, "page", 1);
+        int num = intParam(query, "num", 20);
+
+        JSONArray data = new JSONArray();
+        int start = (page - 1) * num;
+        for (int i = start; i < Math.min(start + num, SEARCH_RESULT_LIMIT); i++) {
+            data.put(songItem(itemTemplate, i, query.getOrDefault("word", "")));
+        }
+        response.put("data", data);
+        return response.toString();
+    }
+
+    private String buildPlaylistResponse(Map<String, String> query) {
+        JSONObject response = new JSONObject(dissinfoTemplate);
+        JSONObject data = response.getJSONObject("data");
+        JSONObject itemTemplate = data.getJSONArray("list").getJSONObject(0);
+        int page = intParam(query, "page", 1);
+        int num = intParam(query, "num", 50);
+
+        JSONArray list = new JSONArray();
+        int start = (page - 1) * num;
+        for (int i = start; i < Math.min(start + num, config.playlistSize()); i++) {
+            list.put(songItem(itemTemplate, i, "歌单"));
+        }
+        data.put("list", list);
+        data.getJSONObject("info").put("songnum", config.playlistSize());
+        data.getJSONObject("info").put("id", query.getOrDefault("id", "0"));
+        return response.toString();
+    }
+
+    // 专辑和歌手的歌曲列表：与歌单相同的分页方式，总数放在 data.total
+    private String buildCollectionResponse(Map<String, String> query, String prefix) {
+        JSONObject response = new JSONObject(dissinfoTemplate);
+        JSONObject itemTemplate = response.getJSONObject("data").getJSONArray("list").getJSONObject(0);
+        int page = intParam(query, "page", 1);
+        int num = intParam(query, "num", 50);
+
+        JSONArray list = new JSONArray();
+        int start = (page - 1) * num;
+        for (int i = start; i < Math.min(start + num, config.playlistSize()); i++) {
+            list.put(songItem(itemTemplate, i, prefix));
+        }
+        JSONObject data = new JSONObject();
+        data.put("list", list);
+        data.put("total", config.playlistSize());
+        data.put("mid", query.getOrDefault("mid", ""));
+        response.put("data", data);
+        return response.toString();
+    }
+
+    private static JSONObject songItem(JSONObject template, int index, String prefix) {
+        JSONObject item = new JSONObject(template.toString());
+        item.put("id", index + 1);
+        item.put("mid", String.format(Locale.US, "MOCK%010d", index));
+        item.put("song", prefix + "模拟歌曲 " + (index + 1));
+        item.put("singer", "模拟歌手/合唱" + (index % 7));
+        return item;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        try {
+            return Math.max(1, Integer.parseInt(query.get(name)));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readRecording(String name) {
+        try (InputStream in = MockApiServer.class.getResourceAsStream("/mock/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("找不到录制的响应: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
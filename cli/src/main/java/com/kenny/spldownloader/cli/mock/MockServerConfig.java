@@ -0,0 +1,85 @@
+// MockServerConfig.java
+package com.kenny.spldownloader.cli.mock;
+
+import java.util.List;
+
+/**
+ * 本地模拟API服务器的行为配置：延迟、错误率、503比例、限流和歌单规模。
+ */
+public record MockServerConfig(int port, int latencyMs, int jitterMs, double errorRate,
+                               double unavailableRate, int maxRequestsPerSecond,
+                               int playlistSize, int serverThreads) {
+
+    public static final String USAGE = String.join("\n",
+            "模拟服务器选项:",
+            "  --port N                监听端口，0 表示随机端口，默认 0",
+            "  --latency MS            每个请求的基础延迟，默认 50",
+            "  --jitter MS             随机附加延迟上限，默认 20",
+            "  --error-rate R          返回 HTTP 500 的比例 (0-1)，默认 0",
+            "  --unavailable-rate R    返回业务码 503 的比例 (0-1)，默认 0",
+            "  --max-rps N             每秒最多处理的请求数，超出返回 HTTP 429，0 表示不限流",
+            "  --songs N               模拟歌单的歌曲数，默认 5000",
+            "  --server-threads N      服务器工作线程数，默认 32");
+
+    public static MockServerConfig defaults() {
+        return new MockServerConfig(0, 50, 20, 0, 0, 0, 5000, 32);
+    }
+
+    /**
+     * 解析模拟服务器相关的选项，其余参数原样放入 remaining。
+     */
+    public static MockServerConfig parse(String[] args, List<String> remaining) {
+        MockServerConfig defaults = defaults();
+        int port = defaults.port;
+        int latencyMs = defaults.latencyMs;
+        int jitterMs = defaults.jitterMs;
+        double errorRate = defaults.errorRate;
+        double unavailableRate = defaults.unavailableRate;
+        int maxRequestsPerSecond = defaults.maxRequestsPerSecond;
+        int playlistSize = defaults.playlistSize;
+        int serverThreads = defaults.serverThreads;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--port":
+                    port = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--latency":
+                    latencyMs = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--jitter":
+                    jitterMs = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--error-rate":
+                    errorRate = Double.parseDouble(value(args, ++i, arg));
+                    break;
+                case "--unavailable-rate":
+                    unavailableRate = Double.parseDouble(value(args, ++i, arg));
+                    break;
+                case "--max-rps":
+                    maxRequestsPerSecond = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--songs":
+                    playlistSize = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--server-threads":
+                    serverThreads = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                default:
+                    remaining.add(arg);
+                    break;
+            }
+        }
+
+        return new MockServerConfig(port, latencyMs, jitterMs, errorRate, unavailableRate,
+                maxRequestsPerSecond, playlistSize, serverThreads);
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("选项缺少参数: " + option);
+        }
+        return args[index];
+    }
+}
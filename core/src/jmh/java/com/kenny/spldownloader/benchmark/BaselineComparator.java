@@ -0,0 +1,137 @@
+// BaselineComparator.java
+package com.kenny.spldownloader.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 对比两份 JMH JSON 结果（基线与本次运行），输出吞吐量与每次操作分配字节数的变化，
+ * 超过阈值的条目标记为回归。
+ *
+ * 参数: <本次结果> <基线结果> [阈值百分比，默认10] [--fail-on-regression]
+ */
+public final class BaselineComparator {
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    private static final String PACKAGE_PREFIX = "com.kenny.spldownloader.";
+
+    private BaselineComparator() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: BaselineComparator <本次结果> <基线结果> [阈值百分比] [--fail-on-regression]");
+            System.exit(2);
+        }
+
+        Path currentPath = Paths.get(args[0]);
+        Path baselinePath = Paths.get(args[1]);
+        double threshold = 10.0;
+        boolean failOnRegression = false;
+        for (int i = 2; i < args.length; i++) {
+            if ("--fail-on-regression".equals(args[i])) {
+                failOnRegression = true;
+            } else {
+                threshold = Double.parseDouble(args[i]);
+            }
+        }
+
+        if (!Files.exists(baselinePath)) {
+            System.err.println("基线文件不存在: " + baselinePath + "，请先运行 jmhSaveBaseline");
+            System.exit(2);
+        }
+
+        Map<String, Result> current = load(currentPath);
+        Map<String, Result> baseline = load(baselinePath);
+
+        System.out.println(String.format(Locale.US, "%-60s %14s %14s %8s %12s %12s %8s",
+                "Benchmark", "基线 ops/s", "本次 ops/s", "Δ%", "基线 B/op", "本次 B/op", "Δ%"));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println(String.format(Locale.US, "%-60s %14s %14.1f %8s %12s %12.1f %8s",
+                        entry.getKey(), "-", now.opsPerSecond, "新增", "-", now.bytesPerOp, "-"));
+                continue;
+            }
+
+            double throughputDelta = percentChange(before.opsPerSecond, now.opsPerSecond);
+            double allocDelta = percentChange(before.bytesPerOp, now.bytesPerOp);
+            // 吞吐量下降或分配增加超过阈值都视为回归
+            boolean regressed = throughputDelta < -threshold || allocDelta > threshold;
+            if (regressed) {
+                regressions++;
+            }
+
+            System.out.println(String.format(Locale.US, "%-60s %14.1f %14.1f %+7.1f%% %12.1f %12.1f %+7.1f%%%s",
+                    entry.getKey(), before.opsPerSecond, now.opsPerSecond, throughputDelta,
+                    before.bytesPerOp, now.bytesPerOp, allocDelta, regressed ? "  <-- 回归" : ""));
+        }
+
+        System.out.println();
+        System.out.println(regressions == 0 ?
+                "未发现超过 " + threshold + "% 的回归" :
+                "发现 " + regressions + " 项超过 " + threshold + "% 的回归");
+
+        if (failOnRegression && regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static double percentChange(double before, double now) {
+        if (before == 0) {
+            return now == 0 ? 0 : 100;
+        }
+        return (now - before) / before * 100.0;
+    }
+
+    private static Map<String, Result> load(Path path) throws IOException {
+        JSONArray runs = new JSONArray(Files.readString(path, StandardCharsets.UTF_8));
+        Map<String, Result> results = new LinkedHashMap<>();
+
+        for (int i = 0; i < runs.length(); i++) {
+            JSONObject run = runs.getJSONObject(i);
+            String key = run.getString("benchmark").replace(PACKAGE_PREFIX, "");
+
+            JSONObject params = run.optJSONObject("params");
+            if (params != null) {
+                StringBuilder suffix = new StringBuilder();
+                Iterator<String> names = params.keys();
+                while (names.hasNext()) {
+                    String name = names.next();
+                    suffix.append(suffix.length() == 0 ? ":" : ",").append(name).append('=').append(params.get(name));
+                }
+                key += suffix;
+            }
+
+            double opsPerSecond = run.getJSONObject("primaryMetric").getDouble("score");
+            double bytesPerOp = 0;
+            JSONObject secondary = run.optJSONObject("secondaryMetrics");
+            if (secondary != null) {
+                Iterator<String> metrics = secondary.keys();
+                while (metrics.hasNext()) {
+                    String metric = metrics.next();
+                    // 旧版 JMH 的指标名带有 "·" 前缀
+                    if (metric.replace("·", "").equals(ALLOC_METRIC)) {
+                        bytesPerOp = secondary.getJSONObject(metric).getDouble("score");
+                    }
+                }
+            }
+
+            results.put(key, new Result(opsPerSecond, bytesPerOp));
+        }
+        return results;
+    }
+
+    private record Result(double opsPerSecond, double bytesPerOp) {
+    }
+}
@@ -0,0 +1,37 @@
+// Fixtures.java
+package com.kenny.spldownloader.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读取 src/jmh/resources/fixtures 下的基准测试样本。
+ */
+public final class Fixtures {
+    private Fixtures() {}
+
+    public static String read(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("找不到样本文件: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<String> readLines(String name) {
+        List<String> lines = new ArrayList<>();
+        for (String line : read(name).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,44 @@
+// LrcConverterBenchmark.java
+package com.kenny.spldownloader.converter;
+
+import com.kenny.spldownloader.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class LrcConverterBenchmark {
+    // huge 由 typical 重复拼接而成，模拟超长歌曲或串烧
+    private static final int HUGE_REPEAT = 40;
+
+    @Param({"small", "typical", "huge"})
+    public String size;
+
+    private LrcConverter converter;
+    private String yrc;
+
+    @Setup
+    public void setUp() {
+        converter = new LrcConverter();
+        switch (size) {
+            case "small":
+                yrc = Fixtures.read("yrc_small.yrc");
+                break;
+            case "typical":
+                yrc = Fixtures.read("yrc_typical.yrc");
+                break;
+            case "huge":
+                yrc = Fixtures.read("yrc_typical.yrc").repeat(HUGE_REPEAT);
+                break;
+            default:
+                throw new IllegalArgumentException("未知的样本规模: " + size);
+        }
+    }
+
+    @Benchmark
+    public String convertYrcToStandardLrc() {
+        return converter.convertYrcToStandardLrc(yrc);
+    }
+}
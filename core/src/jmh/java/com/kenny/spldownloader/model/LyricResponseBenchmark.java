@@ -0,0 +1,32 @@
+// LyricResponseBenchmark.java
+package com.kenny.spldownloader.model;
+
+import com.kenny.spldownloader.benchmark.Fixtures;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class LyricResponseBenchmark {
+    private String responseBody;
+    private JSONObject data;
+
+    @Setup
+    public void setUp() {
+        responseBody = Fixtures.read("lyric_response.json");
+        data = new JSONObject(responseBody).getJSONObject("data");
+    }
+
+    // 与 LyricService.downloadLyric 相同：解析响应体再映射
+    @Benchmark
+    public LyricResponse parseAndMap() {
+        return LyricResponse.fromJson(new JSONObject(responseBody).getJSONObject("data"));
+    }
+
+    @Benchmark
+    public LyricResponse mapOnly() {
+        return LyricResponse.fromJson(data);
+    }
+}
@@ -0,0 +1,37 @@
+// UrlParserBenchmark.java
+package com.kenny.spldownloader.service;
+
+import com.kenny.spldownloader.benchmark.Fixtures;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class UrlParserBenchmark {
+    private String[] urls;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        List<String> lines = Fixtures.readLines("urls.txt");
+        urls = lines.toArray(new String[0]);
+    }
+
+    private String next() {
+        String url = urls[index];
+        index = index + 1 == urls.length ? 0 : index + 1;
+        return url;
+    }
+
+    @Benchmark
+    public String extractPlaylistId() {
+        return UrlParser.extractPlaylistId(next());
+    }
+
+    @Benchmark
+    public String extractSongMid() {
+        return UrlParser.extractSongMid(next());
+    }
+}
@@ -0,0 +1,55 @@
+// FileNamesBenchmark.java
+package com.kenny.spldownloader.util;
+
+import com.kenny.spldownloader.benchmark.Fixtures;
+import com.kenny.spldownloader.model.SongInfo;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class FileNamesBenchmark {
+    private SongInfo[] songs;
+    private String[] rawNames;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        List<String> lines = Fixtures.readLines("songs.tsv");
+        songs = new SongInfo[lines.size()];
+        rawNames = new String[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            String[] fields = lines.get(i).split("\t");
+            SongInfo song = new SongInfo();
+            song.setMid("mid" + i);
+            song.setSongName(fields[0]);
+            song.setSinger(fields[1]);
+            songs[i] = song;
+            rawNames[i] = fields[0] + " - " + fields[1];
+        }
+    }
+
+    private int next() {
+        int current = index;
+        index = current + 1 == songs.length ? 0 : current + 1;
+        return current;
+    }
+
+    @Benchmark
+    public String songInfoGetFileName() {
+        return songs[next()].getFileName();
+    }
+
+    @Benchmark
+    public String makeSafeFileName() {
+        return FileNames.makeSafeFileName(rawNames[next()]);
+    }
+
+    // FileManager 保存时的完整命名路径
+    @Benchmark
+    public String saveFileNamePipeline() {
+        return FileNames.ensureLrcExtension(FileNames.makeSafeFileName(songs[next()].getFileName()));
+    }
+}
@@ -0,0 +1,96 @@
+// AppConfig.java
+package com.kenny.spldownloader.config;
+
+public class AppConfig {
+    private AppConfig() {}
+
+    // API配置
+    public static final String BASE_API_URL = "https://api.vkeys.cn/v2/music/tencent";
+    // 超时、重试、下载线程数、分页大小和批量间隔是 balanced 预设的值，运行时以 Tuning.current() 为准
+    public static final int CONNECT_TIMEOUT = 10000;
+    public static final int READ_TIMEOUT = 15000;
+    public static final int MAX_RETRY_COUNT = 3;
+    public static final int RETRY_DELAY_MS = 2000;
+    public static final int DOWNLOAD_THREADS = 3;
+    // 批量下载、导出时每首歌之间的间隔，避免请求过于频繁
+    public static final long BATCH_DELAY_MS = 500;
+
+    // 兼容的API节点，按优先级排列，主节点失效时依次切换
+    public static final String[] BASE_API_URLS = {
+            BASE_API_URL
+    };
+
+    // 启动时预解析域名并预建连接
+    public static final boolean ENABLE_CONNECTION_WARMUP = true;
+
+    // 熔断器配置
+    public static final int CIRCUIT_WINDOW_SIZE = 20;
+    public static final int CIRCUIT_MINIMUM_CALLS = 5;
+    public static final float CIRCUIT_FAILURE_RATE_THRESHOLD = 0.5f;
+    public static final float CIRCUIT_SLOW_CALL_RATE_THRESHOLD = 0.8f;
+    public static final long CIRCUIT_SLOW_CALL_MS = 5000;
+    public static final long CIRCUIT_OPEN_DURATION_MS = 30000;
+
+    // API端点
+    public static final String ENDPOINT_LYRIC = "/lyric";
+    public static final String ENDPOINT_SONG_INFO = "";
+    public static final String ENDPOINT_PLAYLIST = "/dissinfo";
+    public static final String ENDPOINT_SEARCH = "/search/song"; // 新增搜索端点
+    public static final String ENDPOINT_ALBUM = "/album";
+    public static final String ENDPOINT_SINGER = "/singer";
+
+    // 歌单、专辑、歌手歌曲分页获取
+    public static final int PLAYLIST_PAGE_SIZE = 50;
+    public static final int MAX_PLAYLIST_PAGES = 200;
+    // 同时请求的页数
+    public static final int PAGE_FETCH_CONCURRENCY = 4;
+
+    // 分享短链解析结果最多缓存的条数
+    public static final int SHARE_LINK_CACHE_SIZE = 500;
+
+    // 批量输入时同时解析的行数
+    public static final int BULK_RESOLVE_CONCURRENCY = 4;
+
+    // 高频日志的采样间隔：每 N 条记录 1 条
+    public static final int LOG_SAMPLE_EVERY = 50;
+
+    // 追踪环形缓冲区能保存的区间数
+    public static final int TRACE_BUFFER_SIZE = 8192;
+
+    // 文件配置保持不变...
+    public static final String FOLDER_NORMAL_LRC = "LRC";
+    public static final String FOLDER_WORD_BY_WORD = "SPL";
+
+    // 批量保存时每次 MediaStore applyBatch 包含的文件数
+    public static final int MEDIASTORE_BATCH_SIZE = 200;
+    // 每组同时打开并统一 fsync 的文件数
+    public static final int FSYNC_GROUP_SIZE = 32;
+
+    // 写后存储队列容量，写满后下载阶段会等待
+    public static final int STORAGE_QUEUE_CAPACITY = 64;
+    // 存储线程合并写入时最多等待的时间
+    public static final long STORAGE_COALESCE_MS = 100;
+
+    // 转换池批量转换时每个分块的歌曲数，小于等于它就不再拆分
+    public static final int CONVERSION_CHUNK_SIZE = 8;
+    // 已下载、等待转换和保存的歌曲数上限（转换池每个线程这么多首），满了下载一方等待，原始歌词不会在内存里堆积
+    public static final int PENDING_CONVERSIONS_PER_THREAD = 4;
+
+    // 关注歌单的后台同步周期；连续没有变化时周期逐次翻倍，最多翻倍这么多次
+    public static final long PLAYLIST_SYNC_INTERVAL_MS = 6 * 60 * 60 * 1000L;
+    public static final int PLAYLIST_SYNC_MAX_BACKOFF = 3;
+
+    // 会话快照：状态变化后最多延迟这么久写入；冷启动时第一帧最多等待读取快照这么久
+    public static final long SESSION_SAVE_DELAY_MS = 1000;
+    public static final long SESSION_RESTORE_WAIT_MS = 300;
+
+    // 通知配置保持不变...
+    public static final String NOTIFICATION_CHANNEL_ID = "lyric_download_channel";
+    public static final int NOTIFICATION_ID_SINGLE = 1001;
+    public static final int NOTIFICATION_ID_BATCH = 1002;
+
+    // 权限请求码保持不变...
+    public static final int PERMISSION_REQUEST_CODE = 1001;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int INITIAL_PAGE = 1;
+}
\ No newline at end of file
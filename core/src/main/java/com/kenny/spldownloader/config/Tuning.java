@@ -0,0 +1,72 @@
+// Tuning.java
+package com.kenny.spldownloader.config;
+
+import com.kenny.spldownloader.platform.Log;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 当前生效的 {@link TuningProfile}。网络、线程池和分页在每次使用时读取 {@link #current()}，
+ * 切换后下一个请求就用新值；线程池这类需要主动调整的组件通过 {@link #addListener} 接收变化。
+ */
+public final class Tuning {
+    private static final String TAG = "Tuning";
+
+    private static volatile TuningProfile current = TuningProfile.BALANCED;
+    private static final List<Consumer<TuningProfile>> listeners = new CopyOnWriteArrayList<>();
+
+    private Tuning() {}
+
+    public static TuningProfile current() {
+        return current;
+    }
+
+    /**
+     * 切换配置并在调用线程上通知所有监听器。
+     */
+    public static void apply(TuningProfile profile) {
+        if (profile.equals(current)) {
+            return;
+        }
+        current = profile;
+        Log.i(TAG, "性能配置: " + profile);
+        for (Consumer<TuningProfile> listener : listeners) {
+            listener.accept(profile);
+        }
+    }
+
+    public static void addListener(Consumer<TuningProfile> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Consumer<TuningProfile> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 以 base 为基础读取 properties 覆盖文件；文件不存在或读取失败时返回 base。
+     */
+    public static TuningProfile load(File overrideFile, TuningProfile base) {
+        if (overrideFile == null || !overrideFile.isFile()) {
+            return base;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(overrideFile.toPath());
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            Log.w(TAG, "读取性能配置文件失败: " + e.getMessage());
+            return base;
+        }
+        return TuningProfile.fromProperties(properties, base);
+    }
+}
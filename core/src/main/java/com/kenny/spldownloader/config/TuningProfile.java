@@ -0,0 +1,114 @@
+// TuningProfile.java
+package com.kenny.spldownloader.config;
+
+import com.kenny.spldownloader.platform.Log;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * 一组运行时性能参数：网络超时、重试、下载线程数、搜索分页大小和批量下载的请求间隔。
+ * 内置 metered（按流量计费的慢速网络）、balanced（默认，即 {@link AppConfig} 中的值）、aggressive（快速 Wi-Fi）三个预设，
+ * 可以再用 properties 文件覆盖其中的单项。当前生效的配置见 {@link Tuning}。
+ */
+public record TuningProfile(String name, int connectTimeoutMs, int readTimeoutMs, int maxRetryCount,
+                            long retryDelayMs, int downloadThreads, int searchPageSize, long batchDelayMs) {
+    private static final String TAG = "TuningProfile";
+
+    public static final TuningProfile METERED = new TuningProfile("metered",
+            15000, 30000, 4, 3000, 2, 10, 1000);
+    public static final TuningProfile BALANCED = new TuningProfile("balanced",
+            AppConfig.CONNECT_TIMEOUT, AppConfig.READ_TIMEOUT, AppConfig.MAX_RETRY_COUNT,
+            AppConfig.RETRY_DELAY_MS, AppConfig.DOWNLOAD_THREADS, AppConfig.DEFAULT_PAGE_SIZE,
+            AppConfig.BATCH_DELAY_MS);
+    public static final TuningProfile AGGRESSIVE = new TuningProfile("aggressive",
+            5000, 10000, 2, 1000, 6, 50, 100);
+
+    // properties 文件中的键
+    public static final String KEY_PROFILE = "profile";
+    public static final String KEY_CONNECT_TIMEOUT = "connect.timeout.ms";
+    public static final String KEY_READ_TIMEOUT = "read.timeout.ms";
+    public static final String KEY_MAX_RETRY = "retry.max";
+    public static final String KEY_RETRY_DELAY = "retry.delay.ms";
+    public static final String KEY_DOWNLOAD_THREADS = "download.threads";
+    public static final String KEY_SEARCH_PAGE_SIZE = "search.page.size";
+    public static final String KEY_BATCH_DELAY = "batch.delay.ms";
+
+    public TuningProfile {
+        connectTimeoutMs = Math.max(1000, connectTimeoutMs);
+        readTimeoutMs = Math.max(1000, readTimeoutMs);
+        maxRetryCount = Math.max(1, maxRetryCount);
+        retryDelayMs = Math.max(0, retryDelayMs);
+        downloadThreads = Math.max(1, downloadThreads);
+        searchPageSize = Math.max(1, searchPageSize);
+        batchDelayMs = Math.max(0, batchDelayMs);
+    }
+
+    public static List<TuningProfile> presets() {
+        return Arrays.asList(METERED, BALANCED, AGGRESSIVE);
+    }
+
+    /**
+     * 按名称查找预设，不区分大小写；找不到时返回 null。
+     */
+    public static TuningProfile preset(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (TuningProfile profile : presets()) {
+            if (profile.name().equals(name.trim().toLowerCase(Locale.ROOT))) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 以 properties 中 profile 指定的预设（没有时用 base）为基础，再覆盖其中写了的单项。
+     * 无法识别的预设名或数值只记录警告并忽略。
+     */
+    public static TuningProfile fromProperties(Properties properties, TuningProfile base) {
+        String presetName = properties.getProperty(KEY_PROFILE);
+        if (presetName != null) {
+            TuningProfile preset = preset(presetName);
+            if (preset != null) {
+                base = preset;
+            } else {
+                Log.w(TAG, "未知的性能预设: " + presetName + "，使用 " + base.name());
+            }
+        }
+        boolean overridden = false;
+        for (String key : properties.stringPropertyNames()) {
+            overridden |= !KEY_PROFILE.equals(key);
+        }
+        return new TuningProfile(overridden ? base.name() + "+" : base.name(),
+                intValue(properties, KEY_CONNECT_TIMEOUT, base.connectTimeoutMs()),
+                intValue(properties, KEY_READ_TIMEOUT, base.readTimeoutMs()),
+                intValue(properties, KEY_MAX_RETRY, base.maxRetryCount()),
+                intValue(properties, KEY_RETRY_DELAY, (int) base.retryDelayMs()),
+                intValue(properties, KEY_DOWNLOAD_THREADS, base.downloadThreads()),
+                intValue(properties, KEY_SEARCH_PAGE_SIZE, base.searchPageSize()),
+                intValue(properties, KEY_BATCH_DELAY, (int) base.batchDelayMs()));
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            Log.w(TAG, "性能参数 " + key + " 的值无效: " + value);
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s (连接超时 %d ms, 读取超时 %d ms, 重试 %d 次/间隔 %d ms, 下载线程 %d, " +
+                        "每页 %d 首, 批量间隔 %d ms)", name, connectTimeoutMs, readTimeoutMs, maxRetryCount,
+                retryDelayMs, downloadThreads, searchPageSize, batchDelayMs);
+    }
+}
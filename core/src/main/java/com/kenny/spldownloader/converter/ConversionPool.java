@@ -0,0 +1,119 @@
+// ConversionPool.java
+package com.kenny.spldownloader.converter;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * YRC 转换专用的 fork/join 线程池，线程数按 CPU 核数决定。
+ * 下载线程拿到响应后把转换交给这里，自己马上去发下一个请求，
+ * 网络等待和 CPU 转换各占各的线程，吞吐量可以分别扩展。
+ */
+public final class ConversionPool {
+    private static final ConversionPool INSTANCE = new ConversionPool(defaultParallelism());
+
+    private final ForkJoinPool pool;
+    private final LrcConverter converter = new LrcConverter();
+
+    private ConversionPool(int parallelism) {
+        AtomicInteger threadCount = new AtomicInteger(0);
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("convert-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    public static ConversionPool getInstance() {
+        return INSTANCE;
+    }
+
+    private static int defaultParallelism() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 批量下载时同时等待转换和保存的歌曲数上限。下载一方应在交出原始歌词前按这个数目限流，
+     * 转换或存储跟不上时等待的是下载，而不是转换线程。
+     */
+    public int getPendingLimit() {
+        return pool.getParallelism() * AppConfig.PENDING_CONVERSIONS_PER_THREAD;
+    }
+
+    /**
+     * 在转换池中异步转换一首歌的 YRC，mid 用于把转换区间挂到这首歌的追踪上。
+     */
+    public CompletableFuture<String> convertAsync(String yrcContent, String mid) {
+        return submit(() -> converter.convertYrcToStandardLrc(yrcContent), mid);
+    }
+
+    /**
+     * 在转换池中执行其他 CPU 密集的歌词处理，例如解析一次后同时生成多种格式。
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task, String mid) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Span span = Tracer.beginTrace("convert task", mid)) {
+                return task.get();
+            }
+        }, pool);
+    }
+
+    /**
+     * 并行转换一批已经下载完成的 YRC，结果顺序与输入一致。
+     * 按 {@link AppConfig#CONVERSION_CHUNK_SIZE} 递归拆分，空闲线程会窃取其他线程的分块。
+     */
+    public List<String> convertAll(List<String> yrcContents) {
+        String[] results = pool.invoke(new ConvertChunk(yrcContents, 0, yrcContents.size()));
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private final class ConvertChunk extends RecursiveTask<String[]> {
+        private final List<String> sources;
+        private final int from;
+        private final int to;
+
+        ConvertChunk(List<String> sources, int from, int to) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected String[] compute() {
+            int count = to - from;
+            if (count <= AppConfig.CONVERSION_CHUNK_SIZE) {
+                String[] results = new String[count];
+                for (int i = 0; i < count; i++) {
+                    results[i] = converter.convertYrcToStandardLrc(sources.get(from + i));
+                }
+                return results;
+            }
+
+            int middle = from + count / 2;
+            ConvertChunk left = new ConvertChunk(sources, from, middle);
+            left.fork();
+            String[] right = new ConvertChunk(sources, middle, to).compute();
+            String[] leftResults = left.join();
+
+            String[] results = new String[count];
+            System.arraycopy(leftResults, 0, results, 0, leftResults.length);
+            System.arraycopy(right, 0, results, leftResults.length, right.length);
+            return results;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+// LibraryReconverter.java
+package com.kenny.spldownloader.converter;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.platform.LogSampler;
+import com.kenny.spldownloader.storage.RawLyricCache;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 离线重新生成逐字歌词：从 {@link RawLyricCache} 分批读出原始 YRC，交给 {@link ConversionPool}
+ * 并行转换后由 {@link Output} 写回，全程不联网。大文件用内存映射读取，小文件复用读缓冲区。
+ */
+public class LibraryReconverter {
+    private static final String TAG = "LibraryReconverter";
+    private static final LogSampler ERROR_SAMPLER = new LogSampler(AppConfig.LOG_SAMPLE_EVERY);
+
+    // 小于这个大小的文件直接读进缓冲区，建立映射反而更慢
+    private static final int MMAP_THRESHOLD = 256 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(READ_BUFFER_SIZE));
+
+    /**
+     * 转换结果的去处。fileName 与下载时的歌词文件名一致，带 .lrc 扩展名。
+     */
+    @FunctionalInterface
+    public interface Output {
+        void write(String fileName, String content) throws IOException;
+    }
+
+    public record Result(int total, int converted, int failed, long bytesRead, long elapsedMs) {
+        @Override
+        public String toString() {
+            return "共 " + total + " 首, 成功 " + converted + " 首, 失败 " + failed +
+                    " 首, 读取 " + bytesRead / 1024 + " KB, 耗时 " + elapsedMs + "ms";
+        }
+    }
+
+    private final ConversionPool conversionPool;
+
+    public LibraryReconverter(ConversionPool conversionPool) {
+        this.conversionPool = conversionPool;
+    }
+
+    public LibraryReconverter() {
+        this(ConversionPool.getInstance());
+    }
+
+    public Result reconvert(RawLyricCache cache, Output output) throws IOException {
+        List<Path> sources = cache.list();
+        long startTime = System.nanoTime();
+        int converted = 0;
+        int failed = 0;
+        AtomicLong bytesRead = new AtomicLong();
+
+        // 读一批、并行转换一批、写一批；每批足够让转换池的每个线程分到几块
+        int batchSize = AppConfig.CONVERSION_CHUNK_SIZE * conversionPool.getParallelism() * 2;
+        for (int from = 0; from < sources.size(); from += batchSize) {
+            List<Path> batch = sources.subList(from, Math.min(from + batchSize, sources.size()));
+            List<Path> readable = new ArrayList<>(batch.size());
+            List<String> contents = new ArrayList<>(batch.size());
+            for (Path source : batch) {
+                try {
+                    contents.add(read(source, bytesRead));
+                    readable.add(source);
+                } catch (IOException e) {
+                    failed++;
+                    Log.e(TAG, ERROR_SAMPLER, () -> "读取原始歌词失败: " + source.getFileName() + " - " + e.getMessage());
+                }
+            }
+
+            List<String> results = conversionPool.convertAll(contents);
+            for (int i = 0; i < readable.size(); i++) {
+                Path source = readable.get(i);
+                try {
+                    output.write(RawLyricCache.lyricFileName(source), results.get(i));
+                    converted++;
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    Log.e(TAG, ERROR_SAMPLER, () -> "写入重新转换的歌词失败: " + source.getFileName() + " - " + e.getMessage());
+                }
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000L;
+        Result result = new Result(sources.size(), converted, failed, bytesRead.get(), elapsedMs);
+        Log.i(TAG, "重新转换完成: " + result);
+        return result;
+    }
+
+    private static String read(Path source, AtomicLong bytesRead) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            bytesRead.addAndGet(size);
+
+            if (size >= MMAP_THRESHOLD) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                return StandardCharsets.UTF_8.decode(mapped).toString();
+            }
+
+            ByteBuffer buffer = READ_BUFFER.get();
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate((int) size);
+                READ_BUFFER.set(buffer);
+            }
+            buffer.clear();
+            buffer.limit((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            buffer.flip();
+            return new String(buffer.array(), 0, buffer.limit(), StandardCharsets.UTF_8);
+        }
+    }
+}
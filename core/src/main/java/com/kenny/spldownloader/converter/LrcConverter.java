@@ -1,13 +1,22 @@
 // LrcConverter.java
 package com.kenny.spldownloader.converter;
 
-import android.util.Log;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.metrics.Stage;
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.lyric.ParsedLyric;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.platform.LogSampler;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.regex.*;
 
 public class LrcConverter {
     private static final String TAG = "LrcConverter";
+    // 格式异常的歌词可能每行都失败，只记录一部分
+    private static final LogSampler ERROR_SAMPLER = new LogSampler(AppConfig.LOG_SAMPLE_EVERY);
 
     public String convertYrcToStandardLrc(String yrcContent) {
         if (yrcContent == null || yrcContent.isEmpty()) {
@@ -15,6 +24,46 @@ public class LrcConverter {
             return "";
         }
 
+        try (Span span = Tracer.begin("convert")) {
+            long startTime = System.nanoTime();
+            String result = convertLines(yrcContent);
+            Metrics.recordSince(Stage.YRC_CONVERT, startTime);
+            return result;
+        }
+    }
+
+    /**
+     * 由已经解析好的歌词生成同样格式的逐字 LRC，需要同时导出其他格式时用，原始歌词只解析一次。
+     * 原文中的空行按解析时记下的位置还原，时间轴行按开始时间排列。
+     */
+    public String convert(ParsedLyric lyric) {
+        try (Span span = Tracer.begin("convert")) {
+            long startTime = System.nanoTime();
+            StringBuilder result = new StringBuilder();
+            for (String tag : lyric.metadata()) {
+                result.append(tag).append("\n");
+            }
+
+            for (ParsedLyric.Line line : lyric.lines()) {
+                for (int i = 0; i < line.blankLinesBefore(); i++) {
+                    result.append("\n");
+                }
+                if (!line.hasWords()) {
+                    result.append(formatTime(line.start())).append(line.text()).append("\n");
+                    continue;
+                }
+                for (ParsedLyric.Word word : line.words()) {
+                    result.append(formatTime(word.start())).append(word.text());
+                }
+                ParsedLyric.Word last = line.words().get(line.words().size() - 1);
+                result.append(formatTime(last.end())).append("\n");
+            }
+            Metrics.recordSince(Stage.YRC_CONVERT, startTime);
+            return result.toString();
+        }
+    }
+
+    private String convertLines(String yrcContent) {
         StringBuilder result = new StringBuilder();
         String[] lines = yrcContent.split("\n");
 
@@ -93,7 +142,7 @@ public class LrcConverter {
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "转换行失败: " + line + ", 错误: " + e.getMessage());
+            Log.e(TAG, ERROR_SAMPLER, () -> "转换行失败: " + Log.truncate(line, 120) + ", 错误: " + e.getMessage());
             int firstBracketEnd = line.indexOf(']');
             return firstBracketEnd != -1 ? line.substring(firstBracketEnd + 1) : line;
         }
@@ -0,0 +1,56 @@
+// EnhancedLrcExporter.java
+package com.kenny.spldownloader.export;
+
+import com.kenny.spldownloader.lyric.ParsedLyric;
+
+/**
+ * 增强 LRC（A2 扩展）：行首 [mm:ss.xx]，每个字前加 &lt;mm:ss.xx&gt;，行尾再加一个结束时间。
+ * 没有逐字时间的行按普通 LRC 输出。
+ */
+public class EnhancedLrcExporter implements LyricExporter {
+
+    @Override
+    public String getName() {
+        return "elrc";
+    }
+
+    @Override
+    public String getFolder() {
+        return "ELRC";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".lrc";
+    }
+
+    @Override
+    public String export(ParsedLyric lyric) {
+        StringBuilder out = new StringBuilder();
+        for (String tag : lyric.metadata()) {
+            out.append(tag).append('\n');
+        }
+
+        for (ParsedLyric.Line line : lyric.lines()) {
+            out.append('[');
+            LyricTimeFormat.appendLrc(out, line.start());
+            out.append(']');
+            if (!line.hasWords()) {
+                out.append(line.text()).append('\n');
+                continue;
+            }
+
+            long end = line.start();
+            for (ParsedLyric.Word word : line.words()) {
+                out.append('<');
+                LyricTimeFormat.appendLrc(out, word.start());
+                out.append('>').append(word.text());
+                end = Math.max(end, word.end());
+            }
+            out.append('<');
+            LyricTimeFormat.appendLrc(out, end);
+            out.append(">\n");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,141 @@
+// LyricArchiveWriter.java
+package com.kenny.spldownloader.export;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.service.LyricService;
+import com.kenny.spldownloader.util.FileNames;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 把一批歌词直接流式写入一个 ZIP，目录结构与本地保存一致（LRC / SPL，导出格式各占一个目录），
+ * 结束时追加 manifest.json 记录每首歌的来源、路径和校验值。
+ * 不产生临时文件，可以安全地被多个下载线程同时调用。
+ */
+public class LyricArchiveWriter implements Closeable {
+    public static final String MANIFEST_NAME = "manifest.json";
+    private static final int MANIFEST_VERSION = 1;
+
+    private final ZipOutputStream zip;
+    private final Set<String> entryNames = new HashSet<>();
+    private final JSONArray entries = new JSONArray();
+    private final JSONArray failures = new JSONArray();
+    private final long createdAt = System.currentTimeMillis();
+    private boolean closed;
+
+    public LyricArchiveWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 写入一首歌的歌词，返回它在压缩包中的路径。同名文件会自动加上序号。
+     */
+    public synchronized String add(SongInfo song, String content, LyricService.LyricType lyricType)
+            throws IOException {
+        String folder = lyricType == LyricService.LyricType.NORMAL ?
+                AppConfig.FOLDER_NORMAL_LRC : AppConfig.FOLDER_WORD_BY_WORD;
+        return addEntry(song, content, lyricType.name(), folder, ".lrc");
+    }
+
+    /**
+     * 写入一首歌的某种导出格式，放在该格式自己的目录下，manifest 中的 type 为格式名。
+     */
+    public synchronized String addExport(SongInfo song, LyricExporter exporter, String content)
+            throws IOException {
+        return addEntry(song, content, exporter.getName(), exporter.getFolder(), exporter.getExtension());
+    }
+
+    private String addEntry(SongInfo song, String content, String type, String folder, String extension)
+            throws IOException {
+        ensureOpen();
+        String path = uniquePath(folder, exportBaseName(song), extension);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        zip.putNextEntry(new ZipEntry(path));
+        zip.write(bytes);
+        zip.closeEntry();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entries.put(new JSONObject()
+                .put("mid", song.getMid())
+                .put("song", song.getSongName())
+                .put("singer", song.getSinger())
+                .put("type", type)
+                .put("path", path)
+                .put("bytes", bytes.length)
+                .put("crc32", Long.toHexString(crc.getValue())));
+        return path;
+    }
+
+    /**
+     * 记录下载失败的歌曲，写入清单便于之后补下。
+     */
+    public synchronized void addFailure(SongInfo song, String error) {
+        failures.put(new JSONObject()
+                .put("mid", song.getMid())
+                .put("song", song.getSongName())
+                .put("singer", song.getSinger())
+                .put("error", error != null ? error : "未知错误"));
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.length();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        JSONObject manifest = new JSONObject()
+                .put("version", MANIFEST_VERSION)
+                .put("createdAt", createdAt)
+                .put("count", entries.length())
+                .put("entries", entries)
+                .put("failed", failures);
+        zip.putNextEntry(new ZipEntry(MANIFEST_NAME));
+        zip.write(manifest.toString(2).getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+        zip.close();
+    }
+
+    /**
+     * 去掉 .lrc 后缀的安全文件名，各种格式在此基础上加自己的扩展名。
+     */
+    public static String exportBaseName(SongInfo song) {
+        String fileName = FileNames.ensureLrcExtension(FileNames.makeSafeFileName(song.getFileName()));
+        return fileName.substring(0, fileName.length() - ".lrc".length());
+    }
+
+    private String uniquePath(String folder, String base, String extension) {
+        String path = folder + "/" + base + extension;
+        if (entryNames.add(path)) {
+            return path;
+        }
+        for (int i = 2; ; i++) {
+            path = folder + "/" + base + " (" + i + ")" + extension;
+            if (entryNames.add(path)) {
+                return path;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("压缩包已关闭");
+        }
+    }
+}
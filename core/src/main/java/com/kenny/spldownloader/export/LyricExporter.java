@@ -0,0 +1,28 @@
+// LyricExporter.java
+package com.kenny.spldownloader.export;
+
+import com.kenny.spldownloader.lyric.ParsedLyric;
+
+/**
+ * 把解析好的歌词导出为某种播放器格式。同一份 {@link ParsedLyric} 可以交给多个导出器，
+ * 导出多种格式只需要下载和解析一次。
+ */
+public interface LyricExporter {
+
+    /**
+     * 命令行等处使用的格式名，如 "srt"。
+     */
+    String getName();
+
+    /**
+     * 保存到本地时的子目录名。
+     */
+    String getFolder();
+
+    /**
+     * 文件扩展名，带点号。
+     */
+    String getExtension();
+
+    String export(ParsedLyric lyric);
+}
@@ -0,0 +1,55 @@
+// LyricExporters.java
+package com.kenny.spldownloader.export;
+
+import com.kenny.spldownloader.lyric.ParsedLyric;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已知的导出格式，以及用一份解析结果一次导出多种格式。
+ */
+public final class LyricExporters {
+    private static final List<LyricExporter> ALL = List.of(
+            new EnhancedLrcExporter(),
+            new SrtExporter(),
+            new TtmlExporter());
+
+    private LyricExporters() {}
+
+    public static List<LyricExporter> all() {
+        return ALL;
+    }
+
+    /**
+     * 按格式名查找导出器，找不到时返回 null。
+     */
+    public static LyricExporter forName(String name) {
+        for (LyricExporter exporter : ALL) {
+            if (exporter.getName().equalsIgnoreCase(name)) {
+                return exporter;
+            }
+        }
+        return null;
+    }
+
+    public static List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (LyricExporter exporter : ALL) {
+            names.add(exporter.getName());
+        }
+        return names;
+    }
+
+    /**
+     * 把同一份解析结果依次交给各个导出器，返回值按传入顺序排列。
+     */
+    public static Map<LyricExporter, String> exportAll(ParsedLyric lyric, List<LyricExporter> exporters) {
+        Map<LyricExporter, String> results = new LinkedHashMap<>();
+        for (LyricExporter exporter : exporters) {
+            results.put(exporter, exporter.export(lyric));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,45 @@
+// LyricTimeFormat.java
+package com.kenny.spldownloader.export;
+
+/**
+ * 各导出格式用到的时间格式，时间单位均为毫秒。
+ */
+final class LyricTimeFormat {
+    private LyricTimeFormat() {}
+
+    // mm:ss.xx，LRC 使用
+    static void appendLrc(StringBuilder out, long millis) {
+        long totalSeconds = millis / 1000;
+        appendTwoDigits(out, totalSeconds / 60);
+        out.append(':');
+        appendTwoDigits(out, totalSeconds % 60);
+        out.append('.');
+        appendTwoDigits(out, (millis % 1000) / 10);
+    }
+
+    // HH:MM:SS<separator>mmm，SRT 用逗号，TTML 用点号
+    static void appendClock(StringBuilder out, long millis, char separator) {
+        long totalSeconds = millis / 1000;
+        appendTwoDigits(out, totalSeconds / 3600);
+        out.append(':');
+        appendTwoDigits(out, (totalSeconds / 60) % 60);
+        out.append(':');
+        appendTwoDigits(out, totalSeconds % 60);
+        out.append(separator);
+        long ms = millis % 1000;
+        if (ms < 100) {
+            out.append('0');
+        }
+        if (ms < 10) {
+            out.append('0');
+        }
+        out.append(ms);
+    }
+
+    private static void appendTwoDigits(StringBuilder out, long value) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+}
@@ -0,0 +1,47 @@
+// SrtExporter.java
+package com.kenny.spldownloader.export;
+
+import com.kenny.spldownloader.lyric.ParsedLyric;
+
+/**
+ * SRT 字幕：每行歌词一条字幕，时间取整行的开始和结束，没有逐字信息。
+ */
+public class SrtExporter implements LyricExporter {
+    // 最后一行没有时长时显示的时间
+    private static final long DEFAULT_LAST_LINE_MS = 5000;
+
+    @Override
+    public String getName() {
+        return "srt";
+    }
+
+    @Override
+    public String getFolder() {
+        return "SRT";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".srt";
+    }
+
+    @Override
+    public String export(ParsedLyric lyric) {
+        StringBuilder out = new StringBuilder();
+        int index = 1;
+        for (ParsedLyric.Line line : lyric.lines()) {
+            String text = line.text().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            long end = line.duration() > 0 ? line.end() : line.start() + DEFAULT_LAST_LINE_MS;
+
+            out.append(index++).append('\n');
+            LyricTimeFormat.appendClock(out, line.start(), ',');
+            out.append(" --> ");
+            LyricTimeFormat.appendClock(out, end, ',');
+            out.append('\n').append(text).append("\n\n");
+        }
+        return out.toString();
+    }
+}
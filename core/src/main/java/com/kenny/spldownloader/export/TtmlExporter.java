@@ -0,0 +1,119 @@
+// TtmlExporter.java
+package com.kenny.spldownloader.export;
+
+import com.kenny.spldownloader.lyric.ParsedLyric;
+
+/**
+ * TTML：每行一个 &lt;p&gt;，有逐字时间时每个字一个带时间的 &lt;span&gt;。
+ */
+public class TtmlExporter implements LyricExporter {
+    private static final long DEFAULT_LAST_LINE_MS = 5000;
+
+    @Override
+    public String getName() {
+        return "ttml";
+    }
+
+    @Override
+    public String getFolder() {
+        return "TTML";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".ttml";
+    }
+
+    @Override
+    public String export(ParsedLyric lyric) {
+        StringBuilder out = new StringBuilder();
+        out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.append("<tt xmlns=\"http://www.w3.org/ns/ttml\" xmlns:ttm=\"http://www.w3.org/ns/ttml#metadata\"")
+                .append(" xml:space=\"preserve\">\n");
+
+        String title = metadataValue(lyric, "ti");
+        String artist = metadataValue(lyric, "ar");
+        if (title != null || artist != null) {
+            out.append("  <head>\n    <metadata>\n");
+            if (title != null) {
+                out.append("      <ttm:title>");
+                escape(out, title);
+                out.append("</ttm:title>\n");
+            }
+            if (artist != null) {
+                out.append("      <ttm:agent type=\"person\"><ttm:name type=\"full\">");
+                escape(out, artist);
+                out.append("</ttm:name></ttm:agent>\n");
+            }
+            out.append("    </metadata>\n  </head>\n");
+        }
+
+        out.append("  <body>\n    <div>\n");
+        for (ParsedLyric.Line line : lyric.lines()) {
+            if (line.text().trim().isEmpty()) {
+                continue;
+            }
+            long end = line.duration() > 0 ? line.end() : line.start() + DEFAULT_LAST_LINE_MS;
+            out.append("      <p");
+            appendTiming(out, line.start(), end);
+            out.append('>');
+            if (line.hasWords()) {
+                for (ParsedLyric.Word word : line.words()) {
+                    out.append("<span");
+                    appendTiming(out, word.start(), word.end());
+                    out.append('>');
+                    escape(out, word.text());
+                    out.append("</span>");
+                }
+            } else {
+                escape(out, line.text());
+            }
+            out.append("</p>\n");
+        }
+        out.append("    </div>\n  </body>\n</tt>\n");
+        return out.toString();
+    }
+
+    private static void appendTiming(StringBuilder out, long begin, long end) {
+        out.append(" begin=\"");
+        LyricTimeFormat.appendClock(out, begin, '.');
+        out.append("\" end=\"");
+        LyricTimeFormat.appendClock(out, end, '.');
+        out.append('"');
+    }
+
+    // 从 "[ti:晚风]" 这样的标签行取值
+    private static String metadataValue(ParsedLyric lyric, String key) {
+        String prefix = "[" + key + ":";
+        for (String tag : lyric.metadata()) {
+            if (tag.startsWith(prefix) && tag.endsWith("]")) {
+                String value = tag.substring(prefix.length(), tag.length() - 1).trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private static void escape(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                default:
+                    out.append(c);
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+// LyricTimeline.java
+package com.kenny.spldownloader.lyric;
+
+import java.util.List;
+
+/**
+ * 由 {@link ParsedLyric} 建立的时间轴索引，全部存成按开始时间排好序的基本类型数组。
+ * 按时间查行、查字都是二分查找，O(log n)，查询过程不分配对象，可以在每一帧里调用。
+ *
+ * 没有逐字时间的行（普通 LRC）当作一个覆盖整行的"字"处理，预览时整行一起高亮。
+ */
+public final class LyricTimeline {
+    private final long[] lineStarts;
+    private final long[] lineEnds;
+    private final String[] lineTexts;
+    // 第 i 行的字是 [lineWordOffsets[i], lineWordOffsets[i + 1])
+    private final int[] lineWordOffsets;
+
+    private final long[] wordStarts;
+    private final long[] wordEnds;
+    private final int[] wordCharStarts;
+    private final int[] wordCharEnds;
+    private final int[] wordLines;
+    private long duration;
+
+    private LyricTimeline(int lineCount, int wordCount) {
+        lineStarts = new long[lineCount];
+        lineEnds = new long[lineCount];
+        lineTexts = new String[lineCount];
+        lineWordOffsets = new int[lineCount + 1];
+        wordStarts = new long[wordCount];
+        wordEnds = new long[wordCount];
+        wordCharStarts = new int[wordCount];
+        wordCharEnds = new int[wordCount];
+        wordLines = new int[wordCount];
+    }
+
+    public static LyricTimeline build(ParsedLyric lyric) {
+        List<ParsedLyric.Line> lines = lyric.lines();
+        int wordCount = 0;
+        for (ParsedLyric.Line line : lines) {
+            wordCount += line.hasWords() ? line.words().size() : 1;
+        }
+
+        LyricTimeline timeline = new LyricTimeline(lines.size(), wordCount);
+        int word = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            ParsedLyric.Line line = lines.get(i);
+            timeline.lineStarts[i] = line.start();
+            timeline.lineEnds[i] = line.end();
+            timeline.lineTexts[i] = line.text();
+            timeline.lineWordOffsets[i] = word;
+            timeline.duration = Math.max(timeline.duration, line.end());
+
+            if (line.hasWords()) {
+                List<ParsedLyric.Word> words = line.words();
+                for (int j = 0; j < words.size(); j++) {
+                    ParsedLyric.Word w = words.get(j);
+                    timeline.wordStarts[word] = w.start();
+                    timeline.wordEnds[word] = w.end();
+                    timeline.wordCharStarts[word] = w.charStart();
+                    timeline.wordCharEnds[word] = w.charStart() + w.text().length();
+                    timeline.wordLines[word] = i;
+                    word++;
+                }
+            } else {
+                timeline.wordStarts[word] = line.start();
+                timeline.wordEnds[word] = line.end();
+                timeline.wordCharStarts[word] = 0;
+                timeline.wordCharEnds[word] = line.text().length();
+                timeline.wordLines[word] = i;
+                word++;
+            }
+        }
+        timeline.lineWordOffsets[lines.size()] = word;
+        return timeline;
+    }
+
+    public int getLineCount() {
+        return lineStarts.length;
+    }
+
+    public int getWordCount() {
+        return wordStarts.length;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * 在 timeMs 时刻正在唱（或刚唱完）的行，即开始时间不晚于 timeMs 的最后一行；第一行之前返回 -1。
+     */
+    public int lineAt(long timeMs) {
+        return floorIndex(lineStarts, 0, lineStarts.length, timeMs);
+    }
+
+    /**
+     * 在 timeMs 时刻当前行里正在唱（或刚唱完）的字的全局下标；当前行还没开始唱字时返回 -1。
+     * 先定位行再在行内查找，合唱等行与行时间重叠的情况也能找对。
+     */
+    public int wordAt(long timeMs) {
+        int line = lineAt(timeMs);
+        if (line < 0) {
+            return -1;
+        }
+        return floorIndex(wordStarts, lineWordOffsets[line], lineWordOffsets[line + 1], timeMs);
+    }
+
+    /**
+     * 第 word 个字在 timeMs 时刻的演唱进度，0 到 1。
+     */
+    public float wordProgress(int word, long timeMs) {
+        long start = wordStarts[word];
+        long end = wordEnds[word];
+        if (timeMs <= start) {
+            return 0f;
+        }
+        if (timeMs >= end || end <= start) {
+            return 1f;
+        }
+        return (float) (timeMs - start) / (end - start);
+    }
+
+    public long getLineStart(int line) {
+        return lineStarts[line];
+    }
+
+    public long getLineEnd(int line) {
+        return lineEnds[line];
+    }
+
+    public String getLineText(int line) {
+        return lineTexts[line];
+    }
+
+    public int getFirstWord(int line) {
+        return lineWordOffsets[line];
+    }
+
+    public int getWordEndExclusive(int line) {
+        return lineWordOffsets[line + 1];
+    }
+
+    public int getWordLine(int word) {
+        return wordLines[word];
+    }
+
+    public long getWordStart(int word) {
+        return wordStarts[word];
+    }
+
+    public long getWordEnd(int word) {
+        return wordEnds[word];
+    }
+
+    public int getWordCharStart(int word) {
+        return wordCharStarts[word];
+    }
+
+    public int getWordCharEnd(int word) {
+        return wordCharEnds[word];
+    }
+
+    // [from, to) 内最后一个 <= key 的下标，范围为空或 key 早于第一个元素时返回 -1
+    private static int floorIndex(long[] sorted, int from, int to, long key) {
+        int low = from;
+        int high = to - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+// ParsedLyric.java
+package com.kenny.spldownloader.lyric;
+
+import java.util.List;
+
+/**
+ * 解析后的歌词：元数据标签行（如 "[ti:晚风]"）和按时间排列的歌词行。
+ * 逐字歌词的每行带有逐字时间，普通 LRC 的行没有逐字信息。时间单位均为毫秒。
+ * blankLinesBefore 是原文中这一行前面的空行数，重新生成逐字 LRC 时用来保留段落间隔，导出格式不用。
+ */
+public record ParsedLyric(List<String> metadata, List<Line> lines) {
+
+    public record Line(long start, long duration, String text, List<Word> words, int blankLinesBefore) {
+        public long end() {
+            return start + duration;
+        }
+
+        public boolean hasWords() {
+            return !words.isEmpty();
+        }
+    }
+
+    /**
+     * 一个字（或词），charStart 是它在所在行 text 中的起始下标。
+     */
+    public record Word(long start, long duration, String text, int charStart) {
+        public long end() {
+            return start + duration;
+        }
+    }
+
+    public boolean hasWordTiming() {
+        for (Line line : lines) {
+            if (line.hasWords()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
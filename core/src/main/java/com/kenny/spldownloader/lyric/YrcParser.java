@@ -0,0 +1,172 @@
+// YrcParser.java
+package com.kenny.spldownloader.lyric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 把 YRC 或普通 LRC 文本一次解析成 {@link ParsedLyric}。
+ *
+ * YRC 行形如 "[15000,2664]轻(15000,460)海(15460,512)"：方括号里是行开始时间和时长，
+ * 每个字后面的圆括号是该字的开始时间和时长。LRC 行形如 "[00:15.00]歌词"，行时长取到下一行开始。
+ * 只用 indexOf 逐段扫描，不用正则。
+ */
+public class YrcParser {
+
+    public ParsedLyric parse(String content) {
+        List<String> metadata = new ArrayList<>();
+        List<ParsedLyric.Line> lines = new ArrayList<>();
+        if (content == null || content.isEmpty()) {
+            return new ParsedLyric(metadata, lines);
+        }
+
+        int lineStart = 0;
+        int blankLines = 0;
+        int length = content.length();
+        while (lineStart < length) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            String line = content.substring(lineStart, lineEnd).trim();
+            lineStart = lineEnd + 1;
+
+            if (line.isEmpty()) {
+                blankLines++;
+                continue;
+            }
+            if (line.length() < 3 || line.charAt(0) != '[') {
+                continue;
+            }
+            int close = line.indexOf(']');
+            if (close < 0) {
+                continue;
+            }
+            String tag = line.substring(1, close);
+            if (isMetadataTag(tag)) {
+                metadata.add(line);
+                continue;
+            }
+
+            int comma = tag.indexOf(',');
+            if (comma > 0) {
+                ParsedLyric.Line parsed = parseYrcLine(tag, comma, line.substring(close + 1), blankLines);
+                if (parsed != null) {
+                    lines.add(parsed);
+                    blankLines = 0;
+                }
+            } else {
+                long time = parseLrcTime(tag);
+                if (time >= 0) {
+                    lines.add(new ParsedLyric.Line(time, 0, line.substring(close + 1).trim(),
+                            Collections.emptyList(), blankLines));
+                    blankLines = 0;
+                }
+            }
+        }
+
+        lines.sort((a, b) -> Long.compare(a.start(), b.start()));
+        fillLrcDurations(lines);
+        return new ParsedLyric(metadata, lines);
+    }
+
+    private static boolean isMetadataTag(String tag) {
+        int colon = tag.indexOf(':');
+        return colon > 0 && !Character.isDigit(tag.charAt(0));
+    }
+
+    private static ParsedLyric.Line parseYrcLine(String tag, int comma, String body, int blankLinesBefore) {
+        long lineStart = parseLong(tag, 0, comma);
+        long lineDuration = parseLong(tag, comma + 1, tag.length());
+        if (lineStart < 0 || lineDuration < 0) {
+            return null;
+        }
+
+        List<ParsedLyric.Word> words = new ArrayList<>();
+        StringBuilder text = new StringBuilder(body.length());
+        int position = 0;
+        while (position < body.length()) {
+            int open = body.indexOf('(', position);
+            if (open < 0) {
+                break;
+            }
+            int close = body.indexOf(')', open);
+            int wordComma = body.indexOf(',', open);
+            if (close < 0 || wordComma < 0 || wordComma > close) {
+                break;
+            }
+            long wordStart = parseLong(body, open + 1, wordComma);
+            int secondComma = body.indexOf(',', wordComma + 1);
+            int durationEnd = secondComma > 0 && secondComma < close ? secondComma : close;
+            long wordDuration = parseLong(body, wordComma + 1, durationEnd);
+            if (wordStart < 0 || wordDuration < 0) {
+                // 括号是歌词本身的内容，不是时间标记
+                text.append(body, position, close + 1);
+                position = close + 1;
+                continue;
+            }
+
+            String word = body.substring(position, open);
+            words.add(new ParsedLyric.Word(wordStart, wordDuration, word, text.length()));
+            text.append(word);
+            position = close + 1;
+        }
+        if (position < body.length()) {
+            text.append(body, position, body.length());
+        }
+
+        return new ParsedLyric.Line(lineStart, lineDuration, text.toString(), words, blankLinesBefore);
+    }
+
+    // LRC 时间标签：mm:ss.xx 或 mm:ss.xxx
+    private static long parseLrcTime(String tag) {
+        int colon = tag.indexOf(':');
+        if (colon <= 0) {
+            return -1;
+        }
+        int dot = tag.indexOf('.', colon);
+        long minutes = parseLong(tag, 0, colon);
+        long seconds = parseLong(tag, colon + 1, dot > 0 ? dot : tag.length());
+        if (minutes < 0 || seconds < 0) {
+            return -1;
+        }
+        long millis = 0;
+        if (dot > 0) {
+            int digits = tag.length() - dot - 1;
+            long fraction = parseLong(tag, dot + 1, tag.length());
+            if (fraction < 0) {
+                return -1;
+            }
+            millis = digits == 2 ? fraction * 10 : digits == 1 ? fraction * 100 : fraction;
+        }
+        return minutes * 60_000L + seconds * 1000L + millis;
+    }
+
+    private static void fillLrcDurations(List<ParsedLyric.Line> lines) {
+        for (int i = 0; i < lines.size(); i++) {
+            ParsedLyric.Line line = lines.get(i);
+            if (line.duration() == 0 && !line.hasWords() && i + 1 < lines.size()) {
+                long duration = Math.max(0, lines.get(i + 1).start() - line.start());
+                lines.set(i, new ParsedLyric.Line(line.start(), duration, line.text(), line.words(),
+                        line.blankLinesBefore()));
+            }
+        }
+    }
+
+    // 解析 [from, to) 范围内的非负整数，格式不对返回 -1
+    private static long parseLong(String text, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
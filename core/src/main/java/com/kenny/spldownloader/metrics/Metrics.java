@@ -0,0 +1,66 @@
+// Metrics.java
+package com.kenny.spldownloader.metrics;
+
+import java.util.Locale;
+
+/**
+ * 全局的分阶段指标注册表。记录操作只涉及无锁累加，可以在任意线程的热路径上调用。
+ */
+public final class Metrics {
+    private static final StageMetrics[] STAGES = new StageMetrics[Stage.values().length];
+    private static volatile long startNanos = System.nanoTime();
+
+    static {
+        for (Stage stage : Stage.values()) {
+            STAGES[stage.ordinal()] = new StageMetrics(stage);
+        }
+    }
+
+    private Metrics() {}
+
+    public static void record(Stage stage, long nanos) {
+        STAGES[stage.ordinal()].record(nanos);
+    }
+
+    // 从 startNanos 开始计时，便于在 finally 之外直接调用
+    public static void recordSince(Stage stage, long startNanos) {
+        STAGES[stage.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public static void recordError(Stage stage) {
+        STAGES[stage.ordinal()].recordError();
+    }
+
+    public static StageMetrics get(Stage stage) {
+        return STAGES[stage.ordinal()];
+    }
+
+    public static void reset() {
+        for (StageMetrics metrics : STAGES) {
+            metrics.reset();
+        }
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 输出各阶段的次数、错误数、吞吐量和 p50/p95/p99 等耗时统计。
+     */
+    public static String dump() {
+        double elapsedSeconds = Math.max(0.001, (System.nanoTime() - startNanos) / 1_000_000_000.0);
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.US, "统计时长: %.1fs%n", elapsedSeconds));
+
+        for (StageMetrics metrics : STAGES) {
+            long count = metrics.getCount();
+            if (count == 0 && metrics.getErrors() == 0) {
+                continue;
+            }
+            builder.append(String.format(Locale.US,
+                    "%s: 次数 %d, 错误 %d, 吞吐 %.1f/s, 平均 %.1fms, p50 %.1fms, p95 %.1fms, p99 %.1fms, 最大 %.1fms%n",
+                    metrics.getStage().getDisplayName(), count, metrics.getErrors(), count / elapsedSeconds,
+                    metrics.getAverageMs(), metrics.getPercentileMs(0.50), metrics.getPercentileMs(0.95),
+                    metrics.getPercentileMs(0.99), metrics.getMaxMs()));
+        }
+        return builder.toString();
+    }
+}
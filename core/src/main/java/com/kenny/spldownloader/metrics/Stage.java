@@ -0,0 +1,25 @@
+// Stage.java
+package com.kenny.spldownloader.metrics;
+
+/**
+ * 下载流程中单独统计耗时的阶段。
+ */
+public enum Stage {
+    CONNECT("建立连接"),
+    SERVER_WAIT("等待响应"),
+    BODY_READ("读取响应体"),
+    JSON_DECODE("JSON解析"),
+    YRC_CONVERT("逐字转换"),
+    MEDIASTORE_INSERT("MediaStore插入"),
+    FILE_WRITE("写入文件");
+
+    private final String displayName;
+
+    Stage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,117 @@
+// StageMetrics.java
+package com.kenny.spldownloader.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个阶段的计数器和固定分桶直方图，全部使用无锁累加器。
+ * 分桶按微秒的对数划分：每翻一倍分成 4 个子桶，相对误差约 ±12%。
+ */
+public class StageMetrics {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 覆盖 1 微秒到约 2^40 微秒（十几天），足够涵盖任何阶段
+    private static final int OCTAVES = 40;
+    private static final int BUCKET_COUNT = OCTAVES * SUB_BUCKETS;
+
+    private final Stage stage;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    StageMetrics(Stage stage) {
+        this.stage = stage;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        buckets.incrementAndGet(bucketIndex(nanos / 1000));
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void reset() {
+        count.reset();
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public double getAverageMs() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / n;
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * 根据直方图估算分位数（毫秒），取所在分桶的中点，但不超过记录到的最大值。
+     */
+    public double getPercentileMs(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                // 中点可能落在最大值之上，如最大值 7.3ms 所在分桶的中点是 7.7ms
+                return Math.min((bucketLowerMicros(i) + bucketLowerMicros(i + 1)) / 2.0 / 1000.0, getMaxMs());
+            }
+        }
+        return getMaxMs();
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (octave - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        int index = (octave - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    static long bucketLowerMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int octave = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return (1L << octave) + ((long) subBucket << (octave - SUB_BUCKET_BITS));
+    }
+}
@@ -1,7 +1,6 @@
 // SongInfo.java
 package com.kenny.spldownloader.model;
 
-import androidx.annotation.NonNull;
 import java.util.Objects;
 
 public class SongInfo {
@@ -60,7 +59,6 @@ public class SongInfo {
         return fileName;
     }
 
-    @NonNull
     @Override
     public String toString() {
         return songName + " - " + singer;
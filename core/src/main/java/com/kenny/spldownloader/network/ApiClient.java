@@ -0,0 +1,251 @@
+// ApiClient.java
+package com.kenny.spldownloader.network;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.metrics.Stage;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.platform.LogSampler;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ApiClient {
+    private static final String TAG = "ApiClient";
+    // 批量下载时每首歌都会打请求和响应日志，只保留一部分
+    private static final LogSampler REQUEST_SAMPLER = new LogSampler(AppConfig.LOG_SAMPLE_EVERY);
+    private static final LogSampler RESPONSE_SAMPLER = new LogSampler(AppConfig.LOG_SAMPLE_EVERY);
+
+    private static ApiClient instance;
+
+    private volatile List<Endpoint> endpoints;
+
+    public static synchronized ApiClient getInstance() {
+        if (instance == null) {
+            instance = new ApiClient();
+        }
+        return instance;
+    }
+
+    private ApiClient() {
+        setBaseUrls(Arrays.asList(AppConfig.BASE_API_URLS));
+    }
+
+    /**
+     * 设置按优先级排列的兼容API节点，每个节点各自维护熔断状态。
+     */
+    public void setBaseUrls(List<String> baseUrls) {
+        if (baseUrls == null || baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个API节点");
+        }
+        List<Endpoint> list = new ArrayList<>();
+        for (String baseUrl : baseUrls) {
+            list.add(new Endpoint(baseUrl, new CircuitBreaker(baseUrl)));
+        }
+        endpoints = Collections.unmodifiableList(list);
+    }
+
+    public List<String> getBaseUrls() {
+        List<String> urls = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            urls.add(endpoint.baseUrl());
+        }
+        return urls;
+    }
+
+    // 诊断用：各节点当前的熔断状态
+    public List<CircuitBreaker.Snapshot> getEndpointStates() {
+        List<CircuitBreaker.Snapshot> states = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            states.add(endpoint.breaker().snapshot());
+        }
+        return states;
+    }
+
+    /**
+     * 按节点优先级请求API路径（如 "/lyric?mid=xxx"），跳过已熔断的节点，
+     * 节点层面的失败会立即切换到下一个可用节点。
+     */
+    public String executeApiRequest(String path) throws ApiException {
+        ApiException lastException = null;
+
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.breaker().tryAcquire()) {
+                Log.d(TAG, () -> "节点已熔断，跳过: " + endpoint.baseUrl());
+                continue;
+            }
+
+            long startTime = System.nanoTime();
+            boolean warmAtStart = ConnectionWarmer.getInstance().isWarmedUp();
+            try (Span span = Tracer.begin("request").detail(endpoint.baseUrl() + path)) {
+                String response = executeGetRequest(endpoint.baseUrl() + path);
+                long latencyMs = elapsedMs(startTime);
+                endpoint.breaker().onSuccess(latencyMs);
+                ConnectionWarmer.getInstance().recordRequestLatency(latencyMs, warmAtStart);
+                return response;
+            } catch (ApiException e) {
+                if (!e.shouldRetry()) {
+                    // 业务错误与节点健康无关，不再切换节点
+                    endpoint.breaker().onIgnored();
+                    throw e;
+                }
+                endpoint.breaker().onFailure(elapsedMs(startTime));
+                lastException = e;
+                Log.w(TAG, "节点请求失败，尝试下一个节点: " + endpoint.baseUrl() + ", 错误: " + e.getMessage());
+            }
+        }
+
+        if (lastException != null) {
+            throw lastException;
+        }
+        throw new ApiException("所有API节点暂不可用，请稍后重试", true);
+    }
+
+    public JSONObject executeApiRequestJson(String path) throws ApiException {
+        return parseJson(executeApiRequest(path));
+    }
+
+    public String executeGetRequest(String url) throws ApiException {
+        Log.d(TAG, REQUEST_SAMPLER, () -> "执行HTTP请求: " + url);
+
+        HttpURLConnection connection = null;
+        boolean reusable = false;
+        // 当前所处阶段，失败时记到对应阶段的错误数上
+        Stage stage = Stage.CONNECT;
+        try {
+            URL urlObj = new URL(url);
+            connection = (HttpURLConnection) urlObj.openConnection();
+
+            connection.setRequestMethod("GET");
+            connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+            connection.setRequestProperty("Accept", "application/json");
+            TuningProfile tuning = Tuning.current();
+            connection.setConnectTimeout(tuning.connectTimeoutMs());
+            connection.setReadTimeout(tuning.readTimeoutMs());
+
+            long stageStart = System.nanoTime();
+            connection.connect();
+            Metrics.recordSince(Stage.CONNECT, stageStart);
+
+            stage = Stage.SERVER_WAIT;
+            stageStart = System.nanoTime();
+            int responseCode = connection.getResponseCode();
+            Metrics.recordSince(Stage.SERVER_WAIT, stageStart);
+
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                // 读取错误流
+                String errorResponse = readErrorStream(connection);
+                boolean serverSide = responseCode >= 500 || responseCode == 429;
+                throw new ApiException("HTTP请求失败，响应码: " + responseCode + ", 错误信息: " +
+                        Log.truncate(errorResponse), serverSide);
+            }
+
+            stage = Stage.BODY_READ;
+            stageStart = System.nanoTime();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                response.append(line);
+            }
+            reader.close();
+            Metrics.recordSince(Stage.BODY_READ, stageStart);
+            // 响应体已读完并关闭，连接可以留在连接池中复用
+            reusable = true;
+
+            String responseBody = response.toString();
+            Log.d(TAG, RESPONSE_SAMPLER, () -> "API响应: " + Log.truncate(responseBody));
+
+            validateApiResponse(responseBody);
+
+            return responseBody;
+
+        } catch (Exception e) {
+            if (e instanceof ApiException) {
+                throw (ApiException) e;
+            }
+            Metrics.recordError(stage);
+            throw new ApiException("网络请求失败: " + e.getMessage(), e, e instanceof IOException);
+        } finally {
+            if (connection != null && !reusable) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    // 新增：返回 JSONObject 的方法
+    public JSONObject executeGetRequestJson(String url) throws ApiException {
+        return parseJson(executeGetRequest(url));
+    }
+
+    private JSONObject parseJson(String response) throws ApiException {
+        try {
+            return new JSONObject(response);
+        } catch (Exception e) {
+            throw new ApiException("JSON解析失败: " + e.getMessage());
+        }
+    }
+
+    private String readErrorStream(HttpURLConnection connection) {
+        try {
+            InputStream errorStream = connection.getErrorStream();
+            if (errorStream != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(errorStream, StandardCharsets.UTF_8));
+                StringBuilder errorResponse = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    errorResponse.append(line);
+                }
+                reader.close();
+                return errorResponse.toString();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "读取错误流失败: " + e.getMessage());
+        }
+        return "无法读取错误信息";
+    }
+
+    private void validateApiResponse(String response) throws ApiException {
+        int code;
+        String message;
+        try {
+            JSONObject json = new JSONObject(response);
+            code = json.getInt("code");
+            message = json.optString("message", "未知错误");
+        } catch (JSONException e) {
+            // JSON解析失败，继续使用原始响应
+            Log.w(TAG, "JSON解析失败: " + e.getMessage());
+            return;
+        }
+
+        if (code != 200) {
+            if (code == 503) {
+                throw new ApiException("服务暂时不可用: " + message, true);
+            }
+            throw new ApiException("API错误: " + message + " (代码: " + code + ")");
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    private record Endpoint(String baseUrl, CircuitBreaker breaker) {
+    }
+}
@@ -0,0 +1,181 @@
+// CircuitBreaker.java
+package com.kenny.spldownloader.network;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.platform.Log;
+
+/**
+ * 单个API节点的熔断器：按最近若干次调用的失败率和慢调用率在
+ * CLOSED / OPEN / HALF_OPEN 之间切换，打开期间直接拒绝请求。
+ */
+public class CircuitBreaker {
+    private static final String TAG = "CircuitBreaker";
+
+    private static final byte OUTCOME_SUCCESS = 0;
+    private static final byte OUTCOME_FAILURE = 1;
+    private static final byte OUTCOME_SLOW = 2;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallThresholdMs;
+    private final long openDurationMs;
+
+    // 环形窗口记录最近的调用结果
+    private final byte[] window;
+    private int windowIndex = 0;
+    private int recordedCalls = 0;
+    private int failureCalls = 0;
+    private int slowCalls = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private boolean halfOpenTrialInFlight = false;
+
+    public CircuitBreaker(String name) {
+        this(name, AppConfig.CIRCUIT_WINDOW_SIZE, AppConfig.CIRCUIT_MINIMUM_CALLS,
+                AppConfig.CIRCUIT_FAILURE_RATE_THRESHOLD, AppConfig.CIRCUIT_SLOW_CALL_RATE_THRESHOLD,
+                AppConfig.CIRCUIT_SLOW_CALL_MS, AppConfig.CIRCUIT_OPEN_DURATION_MS);
+    }
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls,
+                          float failureRateThreshold, float slowCallRateThreshold,
+                          long slowCallThresholdMs, long openDurationMs) {
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallThresholdMs = slowCallThresholdMs;
+        this.openDurationMs = openDurationMs;
+        this.window = new byte[windowSize];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 判断当前是否允许请求通过。OPEN 状态到期后进入 HALF_OPEN，只放行一个探测请求。
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now() - openedAt < openDurationMs) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                halfOpenTrialInFlight = true;
+                return true;
+            case HALF_OPEN:
+            default:
+                if (halfOpenTrialInFlight) {
+                    return false;
+                }
+                halfOpenTrialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess(long latencyMs) {
+        if (state == State.HALF_OPEN) {
+            if (latencyMs >= slowCallThresholdMs) {
+                halfOpenTrialInFlight = false;
+                trip();
+            } else {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(latencyMs >= slowCallThresholdMs ? OUTCOME_SLOW : OUTCOME_SUCCESS);
+    }
+
+    public synchronized void onFailure(long latencyMs) {
+        if (state == State.HALF_OPEN) {
+            halfOpenTrialInFlight = false;
+            trip();
+            return;
+        }
+        record(OUTCOME_FAILURE);
+    }
+
+    /**
+     * 请求未产生节点层面的结论（例如业务错误码）时释放探测名额。
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenTrialInFlight = false;
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        long remaining = state == State.OPEN ? Math.max(0, openDurationMs - (now() - openedAt)) : 0;
+        return new Snapshot(name, state, recordedCalls, failureRate(), slowCallRate(), remaining);
+    }
+
+    private void record(byte outcome) {
+        if (recordedCalls == windowSize) {
+            byte evicted = window[windowIndex];
+            if (evicted == OUTCOME_FAILURE) failureCalls--;
+            else if (evicted == OUTCOME_SLOW) slowCalls--;
+        } else {
+            recordedCalls++;
+        }
+
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % windowSize;
+        if (outcome == OUTCOME_FAILURE) failureCalls++;
+        else if (outcome == OUTCOME_SLOW) slowCalls++;
+
+        if (state == State.CLOSED && recordedCalls >= minimumCalls &&
+                (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+            trip();
+        }
+    }
+
+    private void trip() {
+        openedAt = now();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        recordedCalls = 0;
+        failureCalls = 0;
+        slowCalls = 0;
+        halfOpenTrialInFlight = false;
+    }
+
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            Log.w(TAG, "节点 " + name + " 熔断状态: " + state + " -> " + newState +
+                    " (失败率: " + failureRate() + ", 慢调用率: " + slowCallRate() + ")");
+            state = newState;
+        }
+    }
+
+    private float failureRate() {
+        return recordedCalls == 0 ? 0f : (float) failureCalls / recordedCalls;
+    }
+
+    private float slowCallRate() {
+        return recordedCalls == 0 ? 0f : (float) slowCalls / recordedCalls;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+
+    public record Snapshot(String name, State state, int recordedCalls,
+                           float failureRate, float slowCallRate, long openRemainingMs) {
+    }
+}
@@ -0,0 +1,37 @@
+// ConsoleLogSink.java
+package com.kenny.spldownloader.platform;
+
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * JVM 环境下的默认日志输出，写到标准错误，避免与命令行工具的正常输出混在一起。
+ * 级别过滤由 {@link Log#setMinLevel} 统一完成。
+ */
+public class ConsoleLogSink implements LogSink {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final char[] LEVEL_NAMES = {'?', '?', 'V', 'D', 'I', 'W', 'E'};
+
+    private final PrintStream out;
+
+    public ConsoleLogSink() {
+        this(System.err);
+    }
+
+    public ConsoleLogSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void log(int level, String tag, String message, Throwable throwable) {
+        char levelName = level >= 0 && level < LEVEL_NAMES.length ? LEVEL_NAMES[level] : '?';
+        synchronized (out) {
+            out.println(LocalTime.now().format(TIME_FORMAT) + " " + levelName + "/" + tag +
+                    " [" + Thread.currentThread().getName() + "]: " + message);
+            if (throwable != null) {
+                throwable.printStackTrace(out);
+            }
+        }
+    }
+}
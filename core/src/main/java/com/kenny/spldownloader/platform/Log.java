@@ -0,0 +1,128 @@
+// Log.java
+package com.kenny.spldownloader.platform;
+
+import java.util.function.Supplier;
+
+/**
+ * 与平台无关的日志入口，接口与 android.util.Log 保持一致，
+ * 实际输出由安装的 {@link LogSink} 决定（Android 上为 logcat，JVM 上为标准错误输出）。
+ *
+ * 低于 {@link #setMinLevel} 的日志在这里直接返回。拼接开销大的消息应使用 Supplier 重载，
+ * 关闭的级别不会构造字符串；响应体等长文本用 {@link #truncate} 截断，
+ * 高频日志可以配合 {@link LogSampler} 只记录一部分。
+ */
+public final class Log {
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+
+    // 日志中长文本（如API响应体）保留的最大字符数
+    public static final int DEFAULT_MAX_CHARS = 512;
+
+    private static volatile LogSink sink = new ConsoleLogSink();
+    private static volatile int minLevel = INFO;
+
+    private Log() {}
+
+    public static void setSink(LogSink logSink) {
+        sink = logSink != null ? logSink : new ConsoleLogSink();
+    }
+
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    public static boolean isLoggable(int level) {
+        return level >= minLevel;
+    }
+
+    public static void v(String tag, String message) {
+        log(VERBOSE, tag, message, null);
+    }
+
+    public static void v(String tag, Supplier<String> message) {
+        log(VERBOSE, tag, message);
+    }
+
+    public static void d(String tag, String message) {
+        log(DEBUG, tag, message, null);
+    }
+
+    public static void d(String tag, Supplier<String> message) {
+        log(DEBUG, tag, message);
+    }
+
+    /**
+     * 高频调试日志：级别开启时也只按采样器的频率输出。
+     */
+    public static void d(String tag, LogSampler sampler, Supplier<String> message) {
+        if (level(DEBUG) && sampler.sample()) {
+            sink.log(DEBUG, tag, message.get() + sampler.suffix(), null);
+        }
+    }
+
+    public static void i(String tag, String message) {
+        log(INFO, tag, message, null);
+    }
+
+    public static void i(String tag, Supplier<String> message) {
+        log(INFO, tag, message);
+    }
+
+    public static void w(String tag, String message) {
+        log(WARN, tag, message, null);
+    }
+
+    public static void w(String tag, String message, Throwable throwable) {
+        log(WARN, tag, message, throwable);
+    }
+
+    public static void e(String tag, String message) {
+        log(ERROR, tag, message, null);
+    }
+
+    public static void e(String tag, String message, Throwable throwable) {
+        log(ERROR, tag, message, throwable);
+    }
+
+    /**
+     * 高频错误日志（如逐行转换失败），按采样器的频率输出。
+     */
+    public static void e(String tag, LogSampler sampler, Supplier<String> message) {
+        if (level(ERROR) && sampler.sample()) {
+            sink.log(ERROR, tag, message.get() + sampler.suffix(), null);
+        }
+    }
+
+    public static String truncate(String text) {
+        return truncate(text, DEFAULT_MAX_CHARS);
+    }
+
+    /**
+     * 截断长文本，超出部分以总长度代替。
+     */
+    public static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, maxChars) + "…(共" + text.length() + "字符)";
+    }
+
+    private static boolean level(int level) {
+        return level >= minLevel;
+    }
+
+    private static void log(int level, String tag, String message, Throwable throwable) {
+        if (level(level)) {
+            sink.log(level, tag, message, throwable);
+        }
+    }
+
+    private static void log(int level, String tag, Supplier<String> message) {
+        if (level(level)) {
+            sink.log(level, tag, message.get(), null);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+// LogSampler.java
+package com.kenny.spldownloader.platform;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 高频日志的采样器：每 N 条只放行第一条，并在消息后注明采样比例。
+ */
+public final class LogSampler {
+    private final int every;
+    private final String suffix;
+    private final AtomicLong counter = new AtomicLong();
+
+    public LogSampler(int every) {
+        this.every = Math.max(1, every);
+        this.suffix = this.every == 1 ? "" : " [每" + this.every + "条记录1条]";
+    }
+
+    boolean sample() {
+        return counter.getAndIncrement() % every == 0;
+    }
+
+    String suffix() {
+        return suffix;
+    }
+}
@@ -0,0 +1,6 @@
+// LogSink.java
+package com.kenny.spldownloader.platform;
+
+public interface LogSink {
+    void log(int level, String tag, String message, Throwable throwable);
+}
@@ -0,0 +1,155 @@
+// BulkInputResolver.java
+package com.kenny.spldownloader.service;
+
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量输入：每行一个链接（歌单、专辑、歌手、歌曲或分享短链）、歌曲 MID、专辑或歌手 ID（album:MID、singer:MID）
+ * 或关键词（关键词取搜索结果第一首）。
+ * 各行并发解析，同时进行的请求数不超过 maxConcurrency；结果按输入顺序合并并按 MID 去重，
+ * 每行单独记录成功数量或错误信息，一行失败不影响其他行。
+ */
+public class BulkInputResolver {
+    private static final String TAG = "BulkInputResolver";
+
+    private final UrlParser urlParser;
+    private final int maxConcurrency;
+
+    /**
+     * 一行输入的解析结果，lineNumber 从 1 开始；成功时 error 为 null。
+     */
+    public record LineResult(int lineNumber, String input, UrlParser.InputKind kind, int songCount, String error) {
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return "第 " + lineNumber + " 行 " + input + ": " +
+                    (error == null ? songCount + " 首" : error);
+        }
+    }
+
+    public record Result(List<SongInfo> songs, List<LineResult> lines) {
+        public List<LineResult> failures() {
+            List<LineResult> failures = new ArrayList<>();
+            for (LineResult line : lines) {
+                if (!line.isSuccess()) {
+                    failures.add(line);
+                }
+            }
+            return failures;
+        }
+    }
+
+    public BulkInputResolver(UrlParser urlParser, int maxConcurrency) {
+        this.urlParser = urlParser;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * 是否是多行的批量输入。
+     */
+    public static boolean isBulkInput(String text) {
+        return splitLines(text).size() > 1;
+    }
+
+    public Result resolve(String text) {
+        Map<String, Integer> lines = splitLines(text);
+        if (lines.isEmpty()) {
+            return new Result(Collections.emptyList(), Collections.emptyList());
+        }
+
+        AtomicInteger threadCount = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, lines.size()), r -> {
+            Thread thread = new Thread(r, "bulk-resolve-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (Span span = Tracer.beginTrace("bulk resolve", null).detail(lines.size() + " 行")) {
+            List<CompletableFuture<List<SongInfo>>> futures = new ArrayList<>(lines.size());
+            for (String line : lines.keySet()) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return resolveLine(line);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            // 按输入顺序合并，先出现的同一首歌优先
+            Map<String, SongInfo> songs = new LinkedHashMap<>();
+            List<LineResult> results = new ArrayList<>(lines.size());
+            int index = 0;
+            for (Map.Entry<String, Integer> line : lines.entrySet()) {
+                UrlParser.InputKind kind = UrlParser.classify(line.getKey());
+                try {
+                    List<SongInfo> resolved = futures.get(index++).join();
+                    for (SongInfo song : resolved) {
+                        songs.putIfAbsent(song.getMid(), song);
+                    }
+                    results.add(new LineResult(line.getValue(), line.getKey(), kind, resolved.size(), null));
+                } catch (CompletionException e) {
+                    String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                    Log.d(TAG, () -> "解析失败 - 第 " + line.getValue() + " 行: " + error);
+                    results.add(new LineResult(line.getValue(), line.getKey(), kind, 0, error));
+                }
+            }
+            return new Result(new ArrayList<>(songs.values()), results);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<SongInfo> resolveLine(String line) throws Exception {
+        switch (UrlParser.classify(line)) {
+            case PLAYLIST_URL:
+            case SONG_URL:
+            case ALBUM:
+            case SINGER:
+            case SHARE_LINK:
+                return urlParser.parseUrl(line);
+            case SONG_MID:
+                return urlParser.parseSongMid(line);
+            case KEYWORD:
+                List<SongInfo> results = urlParser.searchByKeyword(line, 1, 1);
+                if (results.isEmpty()) {
+                    throw new Exception("未找到歌曲");
+                }
+                return results.subList(0, 1);
+            default:
+                throw new Exception("不支持的链接格式");
+        }
+    }
+
+    // 非空行 → 行号，跳过 # 开头的注释行，重复的行只保留第一次出现
+    private static Map<String, Integer> splitLines(String text) {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        if (text == null) {
+            return lines;
+        }
+        String[] rawLines = text.split("\r?\n");
+        for (int i = 0; i < rawLines.length; i++) {
+            String line = rawLines[i].trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                lines.putIfAbsent(line, i + 1);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,125 @@
+// LyricService.java
+package com.kenny.spldownloader.service;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.converter.ConversionPool;
+import com.kenny.spldownloader.converter.LrcConverter;
+import com.kenny.spldownloader.metrics.Metrics;
+import com.kenny.spldownloader.metrics.Stage;
+import com.kenny.spldownloader.model.LyricResponse;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.network.ApiClient;
+import com.kenny.spldownloader.network.ApiException;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.platform.LogSampler;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+public class LyricService {
+    private static final String TAG = "LyricService";
+    private static final LogSampler DOWNLOAD_SAMPLER = new LogSampler(AppConfig.LOG_SAMPLE_EVERY);
+
+    private final ApiClient apiClient;
+    private final LrcConverter converter;
+
+    public LyricService() {
+        this.apiClient = ApiClient.getInstance();
+        this.converter = new LrcConverter();
+    }
+
+    public LyricResponse downloadLyric(String songMid) throws ApiException, JSONException {
+        // 修正：使用正确的歌词API端点
+        String apiPath = AppConfig.ENDPOINT_LYRIC + "?mid=" + songMid;
+        Log.d(TAG, DOWNLOAD_SAMPLER, () -> "下载歌词 - MID: " + songMid + ", 路径: " + apiPath);
+
+        String response = apiClient.executeApiRequest(apiPath);
+
+        long startTime = System.nanoTime();
+        try (Span span = Tracer.begin("decode")) {
+            JSONObject jsonObject = new JSONObject(response);
+            JSONObject data = jsonObject.getJSONObject("data");
+            LyricResponse lyricResponse = LyricResponse.fromJson(data);
+            Metrics.recordSince(Stage.JSON_DECODE, startTime);
+            return lyricResponse;
+        } catch (JSONException e) {
+            Metrics.recordError(Stage.JSON_DECODE);
+            throw e;
+        }
+    }
+
+    /**
+     * 下载并在当前线程完成转换。批量下载请用 {@link #createFetchTask} 加 {@link #convertAsync}，
+     * 让转换不占用网络线程。
+     */
+    public Callable<String> createDownloadTask(SongInfo songInfo, LyricType lyricType) {
+        Callable<String> fetchTask = createFetchTask(songInfo, lyricType);
+        return () -> convert(fetchTask.call(), lyricType);
+    }
+
+    /**
+     * 只下载、校验原始歌词，逐字歌词返回未转换的 YRC。任务在网络线程上执行，不写磁盘，
+     * 需要缓存原始 YRC 时由保存的一方处理。
+     */
+    public Callable<String> createFetchTask(SongInfo songInfo, LyricType lyricType) {
+        return () -> {
+            try {
+                LyricResponse response = downloadLyric(songInfo.getMid());
+                String lyricContent;
+
+                switch (lyricType) {
+                    case NORMAL:
+                        lyricContent = response.getLrc();
+                        if (!response.hasNormalLyric()) {
+                            throw new ApiException("普通歌词内容为空");
+                        }
+                        break;
+                    case WORD_BY_WORD:
+                        lyricContent = response.getYrc();
+                        if (!response.hasWordByWordLyric()) {
+                            throw new ApiException("逐字歌词内容为空");
+                        }
+                        break;
+                    default:
+                        throw new ApiException("不支持的歌词类型");
+                }
+
+                if (lyricContent == null || lyricContent.trim().isEmpty()) {
+                    throw new ApiException("歌词内容为空");
+                }
+
+                return lyricContent;
+
+            } catch (Exception e) {
+                Log.e(TAG, "下载歌词失败 - 歌曲: " + songInfo.getSongName() +
+                        ", MID: " + songInfo.getMid() + ", 错误: " + e.getMessage());
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * 把 {@link #createFetchTask} 的结果转换为最终保存的内容。
+     */
+    public String convert(String rawLyric, LyricType lyricType) {
+        return lyricType == LyricType.WORD_BY_WORD ? converter.convertYrcToStandardLrc(rawLyric) : rawLyric;
+    }
+
+    /**
+     * 在 {@link ConversionPool} 中转换，普通歌词不需要转换，直接完成。
+     */
+    public CompletableFuture<String> convertAsync(String rawLyric, LyricType lyricType, String mid) {
+        if (lyricType != LyricType.WORD_BY_WORD) {
+            return CompletableFuture.completedFuture(rawLyric);
+        }
+        return ConversionPool.getInstance().convertAsync(rawLyric, mid);
+    }
+
+    public enum LyricType {
+        NORMAL, WORD_BY_WORD
+    }
+}
\ No newline at end of file
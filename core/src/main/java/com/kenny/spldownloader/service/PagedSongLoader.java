@@ -0,0 +1,186 @@
+// PagedSongLoader.java
+package com.kenny.spldownloader.service;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.network.ApiClient;
+import com.kenny.spldownloader.network.ApiException;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分页获取歌单、专辑、歌手这类长列表。先取第一页拿到总数，其余各页并发请求，
+ * 同时进行的请求数不超过 maxConcurrency；取到的页按页码顺序交给 {@link UrlParser.PageListener}，
+ * 交出前先按 MID 与已取到的歌曲去重。总数已知时取完总数对应的全部页；接口没有返回总数时按窗口并发，
+ * 直到某一页不满一页为止。
+ */
+class PagedSongLoader {
+    private static final String TAG = "PagedSongLoader";
+
+    private final ApiClient apiClient;
+    private final int maxConcurrency;
+
+    private record Page(int number, List<SongInfo> songs, int total) {
+    }
+
+    PagedSongLoader(ApiClient apiClient, int maxConcurrency) {
+        this.apiClient = apiClient;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * basePath 是不含分页参数的接口路径，如 "/dissinfo?id=123"；what 用于日志和错误信息，如 "歌单"。
+     * 返回去重后的全部歌曲；某一页重试后仍失败时抛出异常，此前的页已经交给 listener。
+     */
+    List<SongInfo> load(String basePath, String what, UrlParser.PageListener listener) throws Exception {
+        Map<String, SongInfo> loaded = new LinkedHashMap<>();
+
+        try (Span span = Tracer.begin("load " + what)) {
+            Page first = fetchPage(basePath, 1, what);
+            deliver(first, loaded, listener);
+
+            int lastPage = AppConfig.MAX_PLAYLIST_PAGES;
+            if (first.total() > 0) {
+                lastPage = Math.min(lastPage, (first.total() + AppConfig.PLAYLIST_PAGE_SIZE - 1) / AppConfig.PLAYLIST_PAGE_SIZE);
+            }
+            boolean totalKnown = first.total() > 0;
+            if ((totalKnown || first.songs().size() >= AppConfig.PLAYLIST_PAGE_SIZE) && lastPage > 1) {
+                loadRemaining(basePath, what, totalKnown, lastPage, loaded, listener);
+            }
+            span.detail(loaded.size() + " 首");
+        }
+
+        Log.i(TAG, what + "解析完成 - 歌曲数量: " + loaded.size());
+        return new ArrayList<>(loaded.values());
+    }
+
+    private void loadRemaining(String basePath, String what, boolean totalKnown, int lastPage,
+                               Map<String, SongInfo> loaded, UrlParser.PageListener listener) throws Exception {
+        AtomicInteger threadCount = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, lastPage - 1), r -> {
+            Thread thread = new Thread(r, "page-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<CompletableFuture<Page>> pending = new ArrayList<>();
+        try {
+            int next = 2;
+            while (next <= lastPage) {
+                // 总数已知时一次提交全部页；未知时每次提交一个窗口，避免请求大量不存在的页
+                int windowEnd = totalKnown ? lastPage : Math.min(lastPage, next + maxConcurrency - 1);
+                pending.clear();
+                for (int page = next; page <= windowEnd; page++) {
+                    int number = page;
+                    pending.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return fetchPage(basePath, number, what);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor));
+                }
+
+                for (CompletableFuture<Page> future : pending) {
+                    Page page;
+                    try {
+                        page = future.join();
+                    } catch (CompletionException e) {
+                        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                    deliver(page, loaded, listener);
+                    // 总数已知时中间某页可能因过滤掉不可用的歌曲而不满，仍要取完后面的页
+                    if (!totalKnown && page.songs().size() < AppConfig.PLAYLIST_PAGE_SIZE) {
+                        return;
+                    }
+                }
+                next = windowEnd + 1;
+            }
+        } finally {
+            for (CompletableFuture<Page> future : pending) {
+                future.cancel(false);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private static void deliver(Page page, Map<String, SongInfo> loaded, UrlParser.PageListener listener) {
+        List<SongInfo> fresh = new ArrayList<>(page.songs().size());
+        for (SongInfo song : page.songs()) {
+            if (loaded.putIfAbsent(song.getMid(), song) == null) {
+                fresh.add(song);
+            }
+        }
+        int duplicates = page.songs().size() - fresh.size();
+        if (duplicates > 0) {
+            Log.d(TAG, () -> "第 " + page.number() + " 页去掉 " + duplicates + " 首重复歌曲");
+        }
+        if (listener != null && !fresh.isEmpty()) {
+            listener.onPage(page.number(), fresh);
+        }
+    }
+
+    private Page fetchPage(String basePath, int page, String what) throws Exception {
+        String apiPath = basePath + "&page=" + page + "&num=" + AppConfig.PLAYLIST_PAGE_SIZE;
+        JSONObject jsonObject = requestPageWithRetry(apiPath);
+        if (jsonObject.getInt("code") != 200) {
+            String message = jsonObject.optString("message", "未知错误");
+            throw new Exception("获取" + what + "信息失败: " + message);
+        }
+
+        JSONObject data = jsonObject.getJSONObject("data");
+        JSONArray list = data.getJSONArray("list");
+        List<SongInfo> songs = new ArrayList<>(list.length());
+        for (int i = 0; i < list.length(); i++) {
+            JSONObject songJson = list.getJSONObject(i);
+            SongInfo song = new SongInfo();
+            song.setMid(songJson.getString("mid"));
+            song.setSongName(songJson.getString("song"));
+            song.setSinger(songJson.getString("singer"));
+            songs.add(song);
+        }
+
+        // 歌单的总数在 info.songnum，专辑和歌手接口在 total
+        JSONObject info = data.optJSONObject("info");
+        int total = info != null ? info.optInt("songnum", -1) : -1;
+        if (total <= 0) {
+            total = data.optInt("total", -1);
+        }
+        return new Page(page, songs, total);
+    }
+
+    // 长列表需要请求很多页，单页的临时失败不应让整个列表解析失败
+    private JSONObject requestPageWithRetry(String apiPath) throws ApiException {
+        TuningProfile tuning = Tuning.current();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return apiClient.executeApiRequestJson(apiPath);
+            } catch (ApiException e) {
+                if (!e.shouldRetry() || attempt >= tuning.maxRetryCount()) {
+                    throw e;
+                }
+                Log.w(TAG, "分页请求失败，第 " + attempt + " 次重试: " + e.getMessage());
+                try {
+                    Thread.sleep(tuning.retryDelayMs());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+// ShareLinkResolver.java
+package com.kenny.spldownloader.service;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.config.Tuning;
+import com.kenny.spldownloader.config.TuningProfile;
+import com.kenny.spldownloader.network.ApiException;
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.trace.Span;
+import com.kenny.spldownloader.trace.Tracer;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把 QQ音乐 App 的分享短链（c.y.qq.com、i.y.qq.com、url.cn 等）解析成 {@link UrlParser} 能识别的歌单或单曲链接。
+ * 逐跳发 HEAD 请求并读取 Location，不下载页面内容；服务器不支持 HEAD 时改用 GET，同样只看响应头。
+ * 解析结果缓存在磁盘上，同一个分享链接再次粘贴时不用联网。
+ */
+public class ShareLinkResolver {
+    private static final String TAG = "ShareLinkResolver";
+    private static final int MAGIC = 0x53504C52; // "SPLR"
+    private static final int VERSION = 1;
+    private static final int MAX_REDIRECTS = 8;
+
+    private static final Pattern SHARE_HOST = Pattern.compile("(^|\\.)(y\\.qq\\.com|url\\.cn)$");
+    // 网页版的路径形式：/n/ryqq/playlist/123、/n/ryqq/songDetail/0039MnYb0qxYhV
+    private static final Pattern PLAYLIST_PATH = Pattern.compile("/playlist/(\\d+)");
+    private static final Pattern SONG_PATH = Pattern.compile("/songDetail/([0-9A-Za-z]+)");
+    private static final String PLAYLIST_URL = "https://i.y.qq.com/n2/m/share/details/taoge.html?id=";
+    private static final String SONG_URL = "https://i.y.qq.com/v8/playsong.html?songmid=";
+
+    private static ShareLinkResolver instance;
+
+    // 按访问顺序淘汰
+    private final Map<String, String> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > AppConfig.SHARE_LINK_CACHE_SIZE;
+        }
+    };
+    private File cacheFile;
+    private boolean loaded;
+
+    public static synchronized ShareLinkResolver getInstance() {
+        if (instance == null) {
+            instance = new ShareLinkResolver();
+        }
+        return instance;
+    }
+
+    /**
+     * 设置缓存文件，第一次用到时才读取。不设置时只缓存在内存里。
+     */
+    public synchronized void setCacheFile(File file) {
+        this.cacheFile = file;
+        this.loaded = false;
+    }
+
+    /**
+     * 域名属于 QQ音乐 但路径不是已知的歌单或单曲页面，需要跟随跳转才能知道指向什么。
+     */
+    public static boolean isShareLink(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null && SHARE_HOST.matcher(host.toLowerCase()).find();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 只查缓存，不联网，没有缓存时返回 null。
+     */
+    public synchronized String getCached(String url) {
+        ensureLoaded();
+        return cache.get(url.trim());
+    }
+
+    /**
+     * 返回分享链接最终指向的歌单或单曲链接。
+     */
+    public String resolve(String url) throws ApiException {
+        String key = url.trim();
+        String cached = getCached(key);
+        if (cached != null) {
+            Log.d(TAG, () -> "分享链接命中缓存: " + key);
+            return cached;
+        }
+
+        try (Span span = Tracer.beginTrace("resolve share link", null)) {
+            String current = key;
+            for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+                String target = toSupportedUrl(current);
+                if (target != null) {
+                    span.detail(hop + " 次跳转");
+                    put(key, target);
+                    return target;
+                }
+                if (hop == MAX_REDIRECTS) {
+                    break;
+                }
+                String next = nextLocation(current);
+                if (next == null) {
+                    break;
+                }
+                current = next;
+            }
+        }
+        throw new ApiException("无法识别的分享链接: " + key);
+    }
+
+    // 能被 UrlParser 直接解析的形式，否则返回 null
+    static String toSupportedUrl(String url) {
+        UrlParser.InputKind kind = UrlParser.classify(url);
+        if (kind == UrlParser.InputKind.PLAYLIST_URL || kind == UrlParser.InputKind.SONG_URL ||
+                kind == UrlParser.InputKind.ALBUM || kind == UrlParser.InputKind.SINGER) {
+            return url;
+        }
+        Matcher playlist = PLAYLIST_PATH.matcher(url);
+        if (playlist.find()) {
+            return PLAYLIST_URL + playlist.group(1);
+        }
+        Matcher song = SONG_PATH.matcher(url);
+        if (song.find()) {
+            return SONG_URL + song.group(1);
+        }
+        return null;
+    }
+
+    // 请求一跳，返回跳转目标；不是跳转时返回 null
+    private static String nextLocation(String url) throws ApiException {
+        try {
+            String location = requestLocation(url, "HEAD");
+            if (location == null) {
+                return null;
+            }
+            // 不支持 HEAD 的服务器会返回 405 或 501
+            if (location.isEmpty()) {
+                location = requestLocation(url, "GET");
+            }
+            return location == null || location.isEmpty() ? null : URI.create(url).resolve(location).toString();
+        } catch (IOException e) {
+            throw new ApiException("解析分享链接失败: " + e.getMessage(), e, true);
+        } catch (IllegalArgumentException e) {
+            // 跳转地址格式不对，重试也没用
+            throw new ApiException("解析分享链接失败: " + e.getMessage(), e, false);
+        }
+    }
+
+    // 跳转时返回 Location，不支持该方法时返回空串，其他情况返回 null
+    private static String requestLocation(String url, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setInstanceFollowRedirects(false);
+            connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Linux; Android 14) AppleWebKit/537.36");
+            TuningProfile tuning = Tuning.current();
+            connection.setConnectTimeout(tuning.connectTimeoutMs());
+            connection.setReadTimeout(tuning.readTimeoutMs());
+
+            int responseCode = connection.getResponseCode();
+            Log.d(TAG, () -> method + " " + url + " -> " + responseCode);
+            if (responseCode >= 300 && responseCode < 400) {
+                return connection.getHeaderField("Location");
+            }
+            if (responseCode == HttpURLConnection.HTTP_BAD_METHOD || responseCode == HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
+                return "HEAD".equals(method) ? "" : null;
+            }
+            return null;
+        } finally {
+            // 不读响应体，直接断开
+            connection.disconnect();
+        }
+    }
+
+    private synchronized void put(String url, String target) {
+        ensureLoaded();
+        cache.put(url, target);
+        save();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (cacheFile == null || !cacheFile.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                Log.w(TAG, "分享链接缓存格式不匹配，重新建立");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                cache.put(in.readUTF(), in.readUTF());
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "读取分享链接缓存失败，重新建立: " + e.getMessage());
+            cache.clear();
+        }
+    }
+
+    // 每解析出一个新链接写一次，分享链接不多，写入量很小
+    private void save() {
+        if (cacheFile == null) {
+            return;
+        }
+        File parent = cacheFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            Log.w(TAG, "无法创建缓存目录: " + parent.getAbsolutePath());
+            return;
+        }
+        File temp = new File(cacheFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(cache.size());
+            for (Map.Entry<String, String> entry : cache.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "保存分享链接缓存失败: " + e.getMessage());
+            return;
+        }
+        if (!temp.renameTo(cacheFile)) {
+            Log.w(TAG, "替换分享链接缓存失败: " + cacheFile.getAbsolutePath());
+        }
+    }
+}
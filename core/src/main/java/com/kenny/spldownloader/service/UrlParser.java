@@ -0,0 +1,289 @@
+// UrlParser.java
+package com.kenny.spldownloader.service;
+
+import com.kenny.spldownloader.config.AppConfig;
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.network.ApiClient;
+import com.kenny.spldownloader.network.ApiException;
+import com.kenny.spldownloader.platform.Log;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class UrlParser {
+    private static final String TAG = "UrlParser";
+    // 分享文字中夹带的链接，到空白或中英文标点为止
+    private static final Pattern EMBEDDED_URL_PATTERN = Pattern.compile("https?://[^\\s，。（）()]+");
+    // 歌曲 MID：14 位字母数字且含数字，如 0039MnYb0qxYhV
+    private static final Pattern SONG_MID_PATTERN = Pattern.compile("(?=.*[0-9])[0-9A-Za-z]{14}");
+    // 专辑、歌手：网页链接、手机分享页参数，或直接输入 "album:MID"、"singer:MID"
+    private static final Pattern ALBUM_PATTERN = Pattern.compile(
+            "(?:/albumDetail/|/album/|[?&]albummid=|^album:)([0-9A-Za-z]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SINGER_PATTERN = Pattern.compile(
+            "(?:/singer/|[?&]singermid=|^singer:)([0-9A-Za-z]+)", Pattern.CASE_INSENSITIVE);
+    private final ApiClient apiClient;
+    private final PagedSongLoader pagedLoader;
+
+    /**
+     * 分页列表（歌单、专辑、歌手）每取到一页回调一次，按页码顺序在解析线程上调用；
+     * songs 已按 MID 与之前交出的歌曲去重，不会为空。
+     */
+    public interface PageListener {
+        void onPage(int page, List<SongInfo> songs);
+    }
+
+    public UrlParser() {
+        this.apiClient = ApiClient.getInstance();
+        this.pagedLoader = new PagedSongLoader(apiClient, AppConfig.PAGE_FETCH_CONCURRENCY);
+    }
+
+    public List<SongInfo> parseInput(String input) throws Exception {
+        Log.d(TAG, () -> "开始解析输入: " + input);
+
+        if (isUrl(input) || isPagedList(classify(input))) {
+            return parseUrl(input);
+        } else {
+            return searchByKeyword(input, 1, 20);
+        }
+    }
+
+    private boolean isUrl(String input) {
+        return input.startsWith("http://") || input.startsWith("https://") ||
+                input.contains("qq.com") || input.contains("y.qq.com");
+    }
+
+    public List<SongInfo> parseUrl(String input) throws Exception {
+        return parseUrl(input, null);
+    }
+
+    /**
+     * 歌单、专辑和歌手的歌曲分页并发获取，每取到一页就交给 listener，界面可以边取边显示；
+     * 单曲不经过 listener，只看返回值。返回值是按 MID 去重后的全部歌曲。
+     */
+    public List<SongInfo> parseUrl(String input, PageListener listener) throws Exception {
+        String url = extractUrl(input);
+        Log.d(TAG, () -> "开始解析URL: " + url);
+
+        if (url.contains("taoge.html") || url.contains("dissinfo")) {
+            return parsePlaylist(url, listener);
+        } else if (url.contains("playsong.html") || url.contains("songmid")) {
+            return parseSingleSong(url);
+        } else if (ALBUM_PATTERN.matcher(url).find()) {
+            return parseAlbum(url, listener);
+        } else if (SINGER_PATTERN.matcher(url).find()) {
+            return parseSinger(url, listener);
+        } else if (ShareLinkResolver.isShareLink(url)) {
+            String resolved = ShareLinkResolver.getInstance().resolve(url);
+            Log.i(TAG, "分享链接解析为: " + resolved);
+            return parseUrl(resolved, listener);
+        } else {
+            throw new Exception("不支持的链接格式: " + url);
+        }
+    }
+
+    /**
+     * 批量输入时一行内容的类型。
+     */
+    public enum InputKind {
+        PLAYLIST_URL, SONG_URL, ALBUM, SINGER, SHARE_LINK, SONG_MID, KEYWORD, UNSUPPORTED_URL
+    }
+
+    public static InputKind classify(String text) {
+        String input = extractUrl(text);
+        if (input.startsWith("http://") || input.startsWith("https://") || input.contains("qq.com")) {
+            if (input.contains("taoge.html") || input.contains("dissinfo")) {
+                return InputKind.PLAYLIST_URL;
+            } else if (input.contains("playsong.html") || input.contains("songmid")) {
+                return InputKind.SONG_URL;
+            } else if (ALBUM_PATTERN.matcher(input).find()) {
+                return InputKind.ALBUM;
+            } else if (SINGER_PATTERN.matcher(input).find()) {
+                return InputKind.SINGER;
+            } else if (ShareLinkResolver.isShareLink(input)) {
+                return InputKind.SHARE_LINK;
+            }
+            return InputKind.UNSUPPORTED_URL;
+        }
+        if (ALBUM_PATTERN.matcher(input).find()) {
+            return InputKind.ALBUM;
+        } else if (SINGER_PATTERN.matcher(input).find()) {
+            return InputKind.SINGER;
+        } else if (SONG_MID_PATTERN.matcher(input).matches()) {
+            return InputKind.SONG_MID;
+        }
+        return InputKind.KEYWORD;
+    }
+
+    /**
+     * 是否是需要分页获取的列表：歌单、专辑或歌手。
+     */
+    public static boolean isPagedList(InputKind kind) {
+        return kind == InputKind.PLAYLIST_URL || kind == InputKind.ALBUM || kind == InputKind.SINGER;
+    }
+
+    /**
+     * 歌单链接返回歌单ID，其他链接返回 null。同步歌单时用它找到上次的快照。
+     * 分享短链只查已解析过的缓存，不联网。
+     */
+    public static String playlistIdOf(String text) {
+        String url = extractUrl(text);
+        if (classify(url) == InputKind.SHARE_LINK) {
+            String resolved = ShareLinkResolver.getInstance().getCached(url);
+            if (resolved == null) {
+                return null;
+            }
+            url = resolved;
+        }
+        if (url.contains("taoge.html") || url.contains("dissinfo")) {
+            return extractPlaylistId(url);
+        }
+        return null;
+    }
+
+    public List<SongInfo> searchByKeyword(String keyword, int page, int pageSize) throws Exception {
+        Log.d(TAG, () -> "开始搜索关键词: " + keyword + ", 页码: " + page);
+
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new Exception("搜索关键词不能为空");
+        }
+
+        // 使用字符集名称的重载，在所有API级别和JVM上都可用
+        String encodedKeyword = URLEncoder.encode(keyword.trim(), StandardCharsets.UTF_8.name());
+        String apiPath = AppConfig.ENDPOINT_SEARCH + "?word=" + encodedKeyword +
+                "&page=" + page + "&num=" + pageSize;
+        Log.d(TAG, () -> "搜索API路径: " + apiPath);
+
+        try {
+            JSONObject jsonObject = apiClient.executeApiRequestJson(apiPath);
+
+            if (jsonObject.getInt("code") != 200) {
+                String message = jsonObject.optString("message", "未知错误");
+                throw new Exception("搜索失败: " + message + " (代码: " + jsonObject.getInt("code") + ")");
+            }
+
+            JSONArray data = jsonObject.getJSONArray("data");
+            List<SongInfo> songList = new ArrayList<>();
+
+            for (int i = 0; i < data.length(); i++) {
+                JSONObject songJson = data.getJSONObject(i);
+                SongInfo song = new SongInfo();
+                song.setMid(songJson.getString("mid"));
+                song.setSongName(songJson.getString("song"));
+                song.setSinger(songJson.getString("singer"));
+                songList.add(song);
+            }
+
+            Log.i(TAG, "搜索完成 - 找到歌曲数量: " + songList.size());
+            return songList;
+
+        } catch (ApiException e) {
+            throw new Exception("网络请求失败: " + e.getMessage());
+        } catch (Exception e) {
+            throw new Exception("解析搜索结果失败: " + e.getMessage());
+        }
+    }
+
+    private List<SongInfo> parsePlaylist(String url, PageListener listener) throws Exception {
+        String playlistId = extractPlaylistId(url);
+        if (playlistId == null || playlistId.isEmpty()) {
+            throw new Exception("无法提取歌单ID");
+        }
+
+        Log.i(TAG, "解析歌单 - ID: " + playlistId);
+        return pagedLoader.load(AppConfig.ENDPOINT_PLAYLIST + "?id=" + playlistId, "歌单", listener);
+    }
+
+    private List<SongInfo> parseAlbum(String url, PageListener listener) throws Exception {
+        String albumMid = extractGroup(ALBUM_PATTERN, url);
+        if (albumMid == null || albumMid.isEmpty()) {
+            throw new Exception("无法提取专辑MID");
+        }
+
+        Log.i(TAG, "解析专辑 - MID: " + albumMid);
+        return pagedLoader.load(AppConfig.ENDPOINT_ALBUM + "?mid=" + albumMid, "专辑", listener);
+    }
+
+    private List<SongInfo> parseSinger(String url, PageListener listener) throws Exception {
+        String singerMid = extractGroup(SINGER_PATTERN, url);
+        if (singerMid == null || singerMid.isEmpty()) {
+            throw new Exception("无法提取歌手MID");
+        }
+
+        Log.i(TAG, "解析歌手 - MID: " + singerMid);
+        return pagedLoader.load(AppConfig.ENDPOINT_SINGER + "?mid=" + singerMid, "歌手", listener);
+    }
+
+    private List<SongInfo> parseSingleSong(String url) throws Exception {
+        String songMid = extractSongMid(url);
+        if (songMid == null || songMid.isEmpty()) {
+            throw new Exception("无法提取歌曲MID");
+        }
+        return parseSongMid(songMid);
+    }
+
+    public List<SongInfo> parseSongMid(String songMid) throws Exception {
+        Log.i(TAG, "解析单曲 - MID: " + songMid);
+        String apiPath = AppConfig.ENDPOINT_SONG_INFO + "?mid=" + songMid;
+
+        JSONObject jsonObject = apiClient.executeApiRequestJson(apiPath);
+        if (jsonObject.getInt("code") != 200) {
+            String message = jsonObject.optString("message", "未知错误");
+            throw new Exception("获取歌曲信息失败: " + message);
+        }
+
+        JSONObject data = jsonObject.getJSONObject("data");
+        SongInfo song = new SongInfo();
+        song.setMid(songMid);
+        song.setSongName(data.getString("song"));
+        song.setSinger(data.getString("singer"));
+
+        List<SongInfo> songList = new ArrayList<>();
+        songList.add(song);
+        return songList;
+    }
+
+    /**
+     * App 分享出来的文字里带有说明，如 "分享单曲《晚风》https://c6.y.qq.com/... (@QQ音乐)"，取出其中的链接。
+     * 没有 http 链接时原样返回。
+     */
+    static String extractUrl(String text) {
+        Matcher matcher = EMBEDDED_URL_PATTERN.matcher(text);
+        return matcher.find() ? matcher.group() : text.trim();
+    }
+
+    static String extractPlaylistId(String url) {
+        Pattern pattern = Pattern.compile("[?&]id=([^&]*)");
+        Matcher matcher = pattern.matcher(url);
+        if (matcher.find()) {
+            return Objects.requireNonNull(matcher.group(1)).replaceAll("\\*+$", "");
+        }
+        return null;
+    }
+
+    private static String extractGroup(Pattern pattern, String url) {
+        Matcher matcher = pattern.matcher(url);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    static String extractSongMid(String url) {
+        Pattern pattern = Pattern.compile("[?&]songmid=([^&]*)");
+        Matcher matcher = pattern.matcher(url);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+
+        pattern = Pattern.compile("[?&]mid=([^&]*)");
+        matcher = pattern.matcher(url);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+// ContentHashIndex.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.platform.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已保存歌词的内容哈希索引：保存路径（如 "SPL/歌名 - 歌手.lrc"）→ 正文的 64 位 FNV-1a 哈希。
+ * 重新下载时正文没变就可以跳过写入，也可以据此找出内容完全相同的歌词。
+ */
+public class ContentHashIndex {
+    private static final String TAG = "ContentHashIndex";
+    private static final int MAGIC = 0x53504C48; // "SPLH"
+    private static final int VERSION = 1;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final File file;
+    private final Map<String, Long> hashes = new HashMap<>();
+    private boolean dirty;
+
+    public ContentHashIndex(File file) {
+        this.file = file;
+        load();
+    }
+
+    public static long hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 该路径上次保存的正文是否与给定哈希相同。
+     */
+    public synchronized boolean isUnchanged(String path, long hash) {
+        Long existing = hashes.get(path);
+        return existing != null && existing == hash;
+    }
+
+    public synchronized void put(String path, long hash) {
+        Long previous = hashes.put(path, hash);
+        if (previous == null || previous != hash) {
+            dirty = true;
+        }
+    }
+
+    public synchronized void remove(String path) {
+        if (hashes.remove(path) != null) {
+            dirty = true;
+        }
+    }
+
+    public synchronized int size() {
+        return hashes.size();
+    }
+
+    /**
+     * 找出正文完全相同的多个路径，每组至少两个。
+     */
+    public synchronized List<List<String>> findDuplicates() {
+        Map<Long, List<String>> byHash = new HashMap<>();
+        for (Map.Entry<String, Long> entry : hashes.entrySet()) {
+            byHash.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        List<List<String>> duplicates = new ArrayList<>();
+        for (List<String> paths : byHash.values()) {
+            if (paths.size() > 1) {
+                paths.sort(null);
+                duplicates.add(paths);
+            }
+        }
+        duplicates.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        return duplicates;
+    }
+
+    /**
+     * 有改动时写回磁盘：先写临时文件再替换，写到一半也不会损坏原索引。
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(hashes.size());
+            for (Map.Entry<String, Long> entry : hashes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "保存内容索引失败: " + e.getMessage());
+            return;
+        }
+
+        if (temp.renameTo(file)) {
+            dirty = false;
+        } else {
+            Log.w(TAG, "替换内容索引失败: " + file.getAbsolutePath());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                Log.w(TAG, "内容索引格式不匹配，重新建立");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                hashes.put(in.readUTF(), in.readLong());
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "读取内容索引失败，重新建立: " + e.getMessage());
+            hashes.clear();
+        }
+    }
+}
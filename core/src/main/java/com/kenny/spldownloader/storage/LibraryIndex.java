@@ -0,0 +1,208 @@
+// LibraryIndex.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.platform.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 本地歌词库的索引：相对路径（如 "SPL/歌名 - 歌手.lrc"）→ 大小、修改时间和歌曲键。
+ * 歌曲键由文件名推出，列表里判断"是否已下载"只查内存，不用逐个访问磁盘。
+ *
+ * 同时记录一个增量扫描的游标（MediaStore 的 generation 或修改时间），
+ * 具体含义由扫描方决定，游标来源变了就整体重扫。
+ */
+public class LibraryIndex {
+    private static final String TAG = "LibraryIndex";
+    private static final int MAGIC = 0x53504C49; // "SPLI"
+    private static final int VERSION = 1;
+
+    // MediaStore 遇到重名会追加 " (1)" 之类的后缀
+    private static final Pattern DUPLICATE_SUFFIX = Pattern.compile(" \\(\\d+\\)$");
+
+    public record Entry(long size, long modifiedTime, String songKey) {
+    }
+
+    private final File file;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> songKeyCounts = new HashMap<>();
+    private String cursorSource = "";
+    private long cursor;
+    private boolean dirty;
+
+    public LibraryIndex(File file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * 由文件名（含或不含 .lrc）推出歌曲键：去掉扩展名和重名后缀，忽略大小写。
+     */
+    public static String songKey(String fileName) {
+        String name = fileName;
+        int slash = name.lastIndexOf('/');
+        if (slash >= 0) {
+            name = name.substring(slash + 1);
+        }
+        if (name.toLowerCase(Locale.ROOT).endsWith(".lrc")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        name = DUPLICATE_SUFFIX.matcher(name).replaceFirst("");
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized boolean containsSongKey(String songKey) {
+        return songKeyCounts.containsKey(songKey);
+    }
+
+    public synchronized Entry get(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * 记录或更新一个文件，返回索引是否有变化。
+     */
+    public synchronized boolean put(String path, long size, long modifiedTime) {
+        Entry entry = new Entry(size, modifiedTime, songKey(path));
+        Entry previous = entries.put(path, entry);
+        if (entry.equals(previous)) {
+            return false;
+        }
+        if (previous != null) {
+            releaseSongKey(previous.songKey());
+        }
+        songKeyCounts.merge(entry.songKey(), 1, Integer::sum);
+        dirty = true;
+        return true;
+    }
+
+    public synchronized boolean remove(String path) {
+        Entry previous = entries.remove(path);
+        if (previous == null) {
+            return false;
+        }
+        releaseSongKey(previous.songKey());
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * 只保留给定的路径，用于整体重扫后清掉已删除的文件。
+     */
+    public synchronized boolean retainAll(Set<String> paths) {
+        boolean changed = false;
+        for (String path : entries.keySet().toArray(new String[0])) {
+            if (!paths.contains(path)) {
+                changed |= remove(path);
+            }
+        }
+        return changed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized String getCursorSource() {
+        return cursorSource;
+    }
+
+    public synchronized long getCursor() {
+        return cursor;
+    }
+
+    public synchronized void setCursor(String source, long value) {
+        if (!source.equals(cursorSource) || value != cursor) {
+            cursorSource = source;
+            cursor = value;
+            dirty = true;
+        }
+    }
+
+    public synchronized void clear() {
+        if (!entries.isEmpty() || cursor != 0) {
+            entries.clear();
+            songKeyCounts.clear();
+            cursorSource = "";
+            cursor = 0;
+            dirty = true;
+        }
+    }
+
+    /**
+     * 有改动时写回磁盘：先写临时文件再替换。
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(cursorSource);
+            out.writeLong(cursor);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size());
+                out.writeLong(entry.getValue().modifiedTime());
+                out.writeUTF(entry.getValue().songKey());
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "保存歌词库索引失败: " + e.getMessage());
+            return;
+        }
+
+        if (temp.renameTo(file)) {
+            dirty = false;
+        } else {
+            Log.w(TAG, "替换歌词库索引失败: " + file.getAbsolutePath());
+        }
+    }
+
+    private void releaseSongKey(String songKey) {
+        songKeyCounts.computeIfPresent(songKey, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                Log.w(TAG, "歌词库索引格式不匹配，重新扫描");
+                return;
+            }
+            cursorSource = in.readUTF();
+            cursor = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                Entry entry = new Entry(in.readLong(), in.readLong(), in.readUTF());
+                entries.put(path, entry);
+                songKeyCounts.merge(entry.songKey(), 1, Integer::sum);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "读取歌词库索引失败，重新扫描: " + e.getMessage());
+            entries.clear();
+            songKeyCounts.clear();
+            cursorSource = "";
+            cursor = 0;
+        }
+    }
+}
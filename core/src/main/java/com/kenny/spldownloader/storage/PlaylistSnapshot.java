@@ -0,0 +1,155 @@
+// PlaylistSnapshot.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.model.SongInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 某次同步时歌单的快照：按歌单顺序排列的 MID，以及每首歌元数据（歌名、歌手）的哈希。
+ * 下次同步时和新的歌单列表比较，只需要下载新增和元数据变化的歌曲。
+ */
+public final class PlaylistSnapshot {
+    private final String playlistId;
+    private final long savedAt;
+    // MID → 条目，保持歌单顺序
+    private final Map<String, Entry> entries;
+
+    record Entry(String mid, String songName, String singer, long metadataHash) {
+        SongInfo toSong() {
+            return new SongInfo(mid, songName, singer);
+        }
+    }
+
+    /**
+     * 与上次快照相比的变化。added 和 changed 需要下载，removed 只用于提示。
+     */
+    public record Diff(List<SongInfo> added, List<SongInfo> changed, List<SongInfo> removed, int unchanged) {
+        public List<SongInfo> toDownload() {
+            List<SongInfo> songs = new ArrayList<>(added.size() + changed.size());
+            songs.addAll(added);
+            songs.addAll(changed);
+            return songs;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "新增 " + added.size() + " 首, 变化 " + changed.size() + " 首, 移除 " + removed.size() +
+                    " 首, 未变 " + unchanged + " 首";
+        }
+    }
+
+    PlaylistSnapshot(String playlistId, long savedAt, Map<String, Entry> entries) {
+        this.playlistId = playlistId;
+        this.savedAt = savedAt;
+        this.entries = entries;
+    }
+
+    public static PlaylistSnapshot of(String playlistId, List<SongInfo> songs) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (SongInfo song : songs) {
+            entries.putIfAbsent(song.getMid(), entryOf(song));
+        }
+        return new PlaylistSnapshot(playlistId, System.currentTimeMillis(), entries);
+    }
+
+    /**
+     * 第一次同步时没有快照，整个歌单都算新增。
+     */
+    public static Diff diff(PlaylistSnapshot previous, List<SongInfo> current) {
+        if (previous == null) {
+            List<SongInfo> added = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (SongInfo song : current) {
+                if (seen.add(song.getMid())) {
+                    added.add(song);
+                }
+            }
+            return new Diff(added, Collections.emptyList(), Collections.emptyList(), 0);
+        }
+        return previous.diff(current);
+    }
+
+    public Diff diff(List<SongInfo> current) {
+        List<SongInfo> added = new ArrayList<>();
+        List<SongInfo> changed = new ArrayList<>();
+        Map<String, Entry> remaining = new LinkedHashMap<>(entries);
+        int unchanged = 0;
+
+        for (SongInfo song : current) {
+            if (!remaining.containsKey(song.getMid())) {
+                // 不在旧快照里，或者是同一歌单里重复出现的歌
+                if (!entries.containsKey(song.getMid())) {
+                    added.add(song);
+                }
+                continue;
+            }
+            Entry old = remaining.remove(song.getMid());
+            if (old.metadataHash() == metadataHash(song)) {
+                unchanged++;
+            } else {
+                changed.add(song);
+            }
+        }
+
+        List<SongInfo> removed = new ArrayList<>(remaining.size());
+        for (Entry entry : remaining.values()) {
+            removed.add(entry.toSong());
+        }
+        return new Diff(added, changed, removed, unchanged);
+    }
+
+    /**
+     * 本次同步完成后的新快照。下载失败的歌保留旧条目（新增的则不记录），下次同步会再次尝试。
+     */
+    public static PlaylistSnapshot afterSync(String playlistId, PlaylistSnapshot previous,
+                                             List<SongInfo> current, Set<String> failedMids) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (SongInfo song : current) {
+            if (entries.containsKey(song.getMid())) {
+                continue;
+            }
+            if (!failedMids.contains(song.getMid())) {
+                entries.put(song.getMid(), entryOf(song));
+            } else if (previous != null && previous.entries.containsKey(song.getMid())) {
+                entries.put(song.getMid(), previous.entries.get(song.getMid()));
+            }
+        }
+        return new PlaylistSnapshot(playlistId, System.currentTimeMillis(), entries);
+    }
+
+    public String getPlaylistId() {
+        return playlistId;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    Iterable<Entry> entries() {
+        return entries.values();
+    }
+
+    static long metadataHash(SongInfo song) {
+        return ContentHashIndex.hash(song.getSongName() + '\0' + song.getSinger());
+    }
+
+    private static Entry entryOf(SongInfo song) {
+        return new Entry(song.getMid(), Objects.toString(song.getSongName(), ""),
+                Objects.toString(song.getSinger(), ""), metadataHash(song));
+    }
+}
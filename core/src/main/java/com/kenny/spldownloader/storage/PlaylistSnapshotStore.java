@@ -0,0 +1,98 @@
+// PlaylistSnapshotStore.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.platform.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 每个歌单一个快照文件（"&lt;歌单ID&gt;.snap"），记录上次同步时的歌单内容。
+ */
+public class PlaylistSnapshotStore {
+    private static final String TAG = "PlaylistSnapshotStore";
+    private static final int MAGIC = 0x53504C50; // "SPLP"
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".snap";
+
+    private final File directory;
+
+    public PlaylistSnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 读取歌单上次同步的快照，没有或已损坏时返回 null。
+     */
+    public synchronized PlaylistSnapshot load(String playlistId) {
+        File file = fileOf(playlistId);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                Log.w(TAG, "歌单快照格式不匹配，按首次同步处理: " + playlistId);
+                return null;
+            }
+            long savedAt = in.readLong();
+            int count = in.readInt();
+            Map<String, PlaylistSnapshot.Entry> entries = new LinkedHashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String mid = in.readUTF();
+                entries.put(mid, new PlaylistSnapshot.Entry(mid, in.readUTF(), in.readUTF(), in.readLong()));
+            }
+            return new PlaylistSnapshot(playlistId, savedAt, entries);
+        } catch (IOException e) {
+            Log.w(TAG, "读取歌单快照失败，按首次同步处理: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再替换，写到一半也不会损坏上次的快照。
+     */
+    public synchronized void save(PlaylistSnapshot snapshot) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录: " + directory.getAbsolutePath());
+        }
+        File file = fileOf(snapshot.getPlaylistId());
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.getSavedAt());
+            out.writeInt(snapshot.size());
+            for (PlaylistSnapshot.Entry entry : snapshot.entries()) {
+                out.writeUTF(entry.mid());
+                out.writeUTF(entry.songName());
+                out.writeUTF(entry.singer());
+                out.writeLong(entry.metadataHash());
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("替换歌单快照失败: " + file.getAbsolutePath());
+        }
+    }
+
+    public synchronized boolean delete(String playlistId) {
+        return fileOf(playlistId).delete();
+    }
+
+    private File fileOf(String playlistId) {
+        return new File(directory, playlistId.replaceAll("[^0-9A-Za-z_-]", "_") + EXTENSION);
+    }
+}
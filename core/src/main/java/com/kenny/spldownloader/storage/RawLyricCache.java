@@ -0,0 +1,78 @@
+// RawLyricCache.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.platform.Log;
+import com.kenny.spldownloader.util.FileNames;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * 下载时顺手保存的原始 YRC，文件名与输出的歌词文件对应（"歌名 - 歌手.yrc"）。
+ * 逐字歌词的输出格式改了以后可以直接从这里重新转换，不用再联网下载。
+ */
+public class RawLyricCache {
+    private static final String TAG = "RawLyricCache";
+    public static final String EXTENSION = ".yrc";
+    private static final String LRC_EXTENSION = ".lrc";
+
+    private final Path directory;
+
+    public RawLyricCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 保存原始歌词。缓存写失败不影响下载，只记录警告。
+     */
+    public void put(String fileName, String yrcContent) {
+        String safeName = FileNames.makeSafeFileName(fileName);
+        if (safeName.toLowerCase(Locale.ROOT).endsWith(LRC_EXTENSION)) {
+            safeName = safeName.substring(0, safeName.length() - LRC_EXTENSION.length());
+        }
+        try {
+            // 文件名在某些文件系统上可能不合法（InvalidPathException），也只算缓存失败
+            Path target = directory.resolve(safeName + EXTENSION);
+            Path temp = directory.resolve("." + safeName + EXTENSION + ".tmp");
+            Files.createDirectories(directory);
+            // Files.writeString 在 Android 13 以下不存在
+            Files.write(temp, yrcContent.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "缓存原始歌词失败: " + safeName + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * 列出所有缓存的原始歌词文件。
+     */
+    public List<Path> list() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    /**
+     * 由缓存文件名还原出歌词文件名，如 "歌名 - 歌手.lrc"。
+     */
+    public static String lyricFileName(Path cacheFile) {
+        String name = cacheFile.getFileName().toString();
+        return name.substring(0, name.length() - EXTENSION.length()) + LRC_EXTENSION;
+    }
+}
@@ -0,0 +1,13 @@
+// SessionSnapshot.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.model.SongInfo;
+import java.util.List;
+
+/**
+ * 界面状态的快照：歌曲列表（含下载状态）和搜索位置。进程被杀后冷启动时用它直接恢复上次的列表，不需要联网。
+ * songs 由调用方保证不再修改。
+ */
+public record SessionSnapshot(List<SongInfo> songs, String keyword, int page, boolean searchMode,
+                              boolean hasMoreData, long savedAt) {
+}
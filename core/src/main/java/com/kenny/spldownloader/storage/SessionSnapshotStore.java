@@ -0,0 +1,107 @@
+// SessionSnapshotStore.java
+package com.kenny.spldownloader.storage;
+
+import com.kenny.spldownloader.model.SongInfo;
+import com.kenny.spldownloader.platform.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把 {@link SessionSnapshot} 存成一个二进制文件，每首歌只记 MID、歌名、歌手和一个字节的下载状态。
+ */
+public class SessionSnapshotStore {
+    private static final String TAG = "SessionSnapshotStore";
+    private static final int MAGIC = 0x53504C53; // "SPLS"
+    private static final int VERSION = 1;
+    private static final int FLAG_SEARCH_MODE = 1;
+    private static final int FLAG_HAS_MORE = 2;
+
+    private final File file;
+
+    public SessionSnapshotStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 读取上次保存的快照，没有或已损坏时返回 null。
+     */
+    public synchronized SessionSnapshot load() {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                Log.w(TAG, "会话快照格式不匹配，忽略");
+                return null;
+            }
+            long savedAt = in.readLong();
+            String keyword = in.readUTF();
+            int page = in.readInt();
+            int flags = in.readByte();
+            int count = in.readInt();
+            SongInfo.DownloadStatus[] statuses = SongInfo.DownloadStatus.values();
+            List<SongInfo> songs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                SongInfo song = new SongInfo(in.readUTF(), in.readUTF(), in.readUTF());
+                int status = in.readByte();
+                song.setDownloadStatus(status >= 0 && status < statuses.length ?
+                        statuses[status] : SongInfo.DownloadStatus.NONE);
+                songs.add(song);
+            }
+            return new SessionSnapshot(songs, keyword, page, (flags & FLAG_SEARCH_MODE) != 0,
+                    (flags & FLAG_HAS_MORE) != 0, savedAt);
+        } catch (IOException e) {
+            Log.w(TAG, "读取会话快照失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再替换，写到一半被杀也不会损坏上次的快照。
+     */
+    public synchronized void save(SessionSnapshot snapshot) throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录: " + directory.getAbsolutePath());
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.savedAt());
+            out.writeUTF(nonNull(snapshot.keyword()));
+            out.writeInt(snapshot.page());
+            out.writeByte((snapshot.searchMode() ? FLAG_SEARCH_MODE : 0) |
+                    (snapshot.hasMoreData() ? FLAG_HAS_MORE : 0));
+            out.writeInt(snapshot.songs().size());
+            for (SongInfo song : snapshot.songs()) {
+                out.writeUTF(nonNull(song.getMid()));
+                out.writeUTF(nonNull(song.getSongName()));
+                out.writeUTF(nonNull(song.getSinger()));
+                out.writeByte(song.getDownloadStatus().ordinal());
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("替换会话快照失败: " + file.getAbsolutePath());
+        }
+    }
+
+    public synchronized boolean delete() {
+        return file.delete();
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
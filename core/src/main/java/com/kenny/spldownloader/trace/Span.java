@@ -0,0 +1,53 @@
+// Span.java
+package com.kenny.spldownloader.trace;
+
+/**
+ * 一段计时区间，配合 try-with-resources 使用。结束时写入 {@link Tracer} 的环形缓冲区。
+ */
+public final class Span implements AutoCloseable {
+    // 未开启追踪时返回的空实现，不分配任何对象
+    static final Span NOOP = new Span(0, null, "", null, 0, "", 0, false);
+
+    final long id;
+    final Span parent;
+    final String name;
+    final String mid;
+    final long threadId;
+    final String threadName;
+    final long startNanos;
+    // 异步区间（如排队等待）跨越多个线程，导出为 b/e 事件
+    final boolean async;
+    long endNanos;
+    String detail;
+
+    Span(long id, Span parent, String name, String mid, long threadId, String threadName,
+         long startNanos, boolean async) {
+        this.id = id;
+        this.parent = parent;
+        this.name = name;
+        this.mid = mid;
+        this.threadId = threadId;
+        this.threadName = threadName;
+        this.startNanos = startNanos;
+        this.async = async;
+    }
+
+    /**
+     * 附加一段说明（如节点地址、错误信息），导出时放在 args 中。
+     */
+    public Span detail(String detail) {
+        if (this != NOOP) {
+            this.detail = detail;
+        }
+        return this;
+    }
+
+    public String getMid() {
+        return mid;
+    }
+
+    @Override
+    public void close() {
+        Tracer.end(this);
+    }
+}
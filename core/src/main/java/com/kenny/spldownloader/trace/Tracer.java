@@ -0,0 +1,200 @@
+// Tracer.java
+package com.kenny.spldownloader.trace;
+
+import com.kenny.spldownloader.config.AppConfig;
+import org.json.JSONObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按歌曲追踪下载流程的各个环节。子区间通过 ThreadLocal 自动挂到当前区间下并继承歌曲 MID，
+ * 结束的区间保存在固定大小的环形缓冲区里，写满后覆盖最旧的记录。
+ * 可导出为 Chrome trace-event JSON，在 chrome://tracing 或 Perfetto 中查看。
+ */
+public final class Tracer {
+    private static final AtomicReferenceArray<Span> buffer =
+            new AtomicReferenceArray<>(AppConfig.TRACE_BUFFER_SIZE);
+    private static final AtomicLong writeIndex = new AtomicLong();
+    private static final AtomicLong nextId = new AtomicLong(1);
+    private static final ThreadLocal<Span> current = new ThreadLocal<>();
+    private static final long epochNanos = System.nanoTime();
+
+    private static volatile boolean enabled = false;
+
+    private Tracer() {}
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始一首歌曲的根区间。
+     */
+    public static Span beginTrace(String name, String mid) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        return push(name, mid);
+    }
+
+    /**
+     * 在当前线程的当前区间下开始子区间，继承其歌曲 MID。
+     */
+    public static Span begin(String name) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = current.get();
+        return push(name, parent != null ? parent.mid : null);
+    }
+
+    /**
+     * 记录一段已经结束、跨线程的区间，例如任务从提交到开始执行的排队时间。
+     */
+    public static void recordAsync(String name, String mid, long startNanos, long endNanos) {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        Span span = new Span(nextId.getAndIncrement(), null, name, mid,
+                threadId(thread), thread.getName(), startNanos, true);
+        span.endNanos = endNanos;
+        store(span);
+    }
+
+    static void end(Span span) {
+        if (span == Span.NOOP) {
+            return;
+        }
+        span.endNanos = System.nanoTime();
+        // 只在区间按嵌套顺序结束时恢复父区间
+        if (current.get() == span) {
+            if (span.parent != null) {
+                current.set(span.parent);
+            } else {
+                current.remove();
+            }
+        }
+        store(span);
+    }
+
+    public static void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+        writeIndex.set(0);
+    }
+
+    public static int size() {
+        return (int) Math.min(writeIndex.get(), buffer.length());
+    }
+
+    /**
+     * 以 Chrome trace-event 格式导出缓冲区中的所有区间。
+     */
+    public static void exportChromeTrace(Writer writer) throws IOException {
+        List<Span> spans = snapshot();
+        Map<Long, String> threads = new LinkedHashMap<>();
+
+        writer.write("{\"traceEvents\":[");
+        boolean first = true;
+        for (Span span : spans) {
+            threads.putIfAbsent(span.threadId, span.threadName);
+            long startMicros = (span.startNanos - epochNanos) / 1000;
+            long endMicros = (span.endNanos - epochNanos) / 1000;
+            String args = buildArgs(span);
+
+            if (span.async) {
+                first = writeSeparator(writer, first);
+                writer.write(asyncEvent(span, "b", startMicros, args));
+                writer.write(',');
+                writer.write(asyncEvent(span, "e", endMicros, "{}"));
+            } else {
+                first = writeSeparator(writer, first);
+                writer.write("{\"name\":" + JSONObject.quote(span.name) +
+                        ",\"cat\":\"download\",\"ph\":\"X\",\"pid\":1,\"tid\":" + span.threadId +
+                        ",\"ts\":" + startMicros + ",\"dur\":" + Math.max(0, endMicros - startMicros) +
+                        ",\"args\":" + args + "}");
+            }
+        }
+
+        // 线程名元数据，让查看器按线程名显示各条时间线
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            first = writeSeparator(writer, first);
+            writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getKey() +
+                    ",\"args\":{\"name\":" + JSONObject.quote(thread.getValue()) + "}}");
+        }
+        writer.write("],\"displayTimeUnit\":\"ms\"}");
+        writer.flush();
+    }
+
+    // Thread.threadId() 在 Android 上要到 API 36 才有，core 也跑在 minSdk 26 的 app 里，只能继续用 getId()
+    @SuppressWarnings("deprecation")
+    private static long threadId(Thread thread) {
+        return thread.getId();
+    }
+
+    private static Span push(String name, String mid) {
+        Thread thread = Thread.currentThread();
+        Span span = new Span(nextId.getAndIncrement(), current.get(), name, mid,
+                threadId(thread), thread.getName(), System.nanoTime(), false);
+        current.set(span);
+        return span;
+    }
+
+    private static void store(Span span) {
+        long index = writeIndex.getAndIncrement();
+        buffer.set((int) (index % buffer.length()), span);
+    }
+
+    // 按写入顺序取出当前缓冲区中的区间
+    private static List<Span> snapshot() {
+        long end = writeIndex.get();
+        long start = Math.max(0, end - buffer.length());
+        List<Span> spans = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            Span span = buffer.get((int) (i % buffer.length()));
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    private static String asyncEvent(Span span, String phase, long micros, String args) {
+        return "{\"name\":" + JSONObject.quote(span.name) + ",\"cat\":\"queue\",\"ph\":\"" + phase +
+                "\",\"id\":" + span.id + ",\"pid\":1,\"tid\":" + span.threadId +
+                ",\"ts\":" + micros + ",\"args\":" + args + "}";
+    }
+
+    private static String buildArgs(Span span) {
+        StringBuilder args = new StringBuilder("{\"id\":").append(span.id);
+        if (span.parent != null) {
+            args.append(",\"parent\":").append(span.parent.id);
+        }
+        if (span.mid != null) {
+            args.append(",\"mid\":").append(JSONObject.quote(span.mid));
+        }
+        if (span.detail != null) {
+            args.append(",\"detail\":").append(JSONObject.quote(span.detail));
+        }
+        return args.append('}').toString();
+    }
+
+    private static boolean writeSeparator(Writer writer, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+// FileNames.java
+package com.kenny.spldownloader.util;
+
+public final class FileNames {
+    private FileNames() {}
+
+    public static String ensureLrcExtension(String fileName) {
+        if (fileName == null) return "unknown.lrc";
+
+        if (fileName.toLowerCase().endsWith(".lrc")) {
+            return fileName;
+        }
+
+        String nameWithoutExt = fileName;
+        int lastDotIndex = fileName.lastIndexOf('.');
+        if (lastDotIndex > 0) {
+            nameWithoutExt = fileName.substring(0, lastDotIndex);
+        }
+
+        return nameWithoutExt + ".lrc";
+    }
+
+    public static String makeSafeFileName(String fileName) {
+        if (fileName == null) return "unknown.lrc";
+
+        return fileName.replaceAll("[<>:\"/\\\\|?*]", "_")
+                .replaceAll("_{2,}", "_")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}